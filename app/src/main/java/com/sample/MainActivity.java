@@ -133,8 +133,8 @@ public class MainActivity extends AppCompatActivity {
 
 
     private void refreshSSV(int sunriseHour, int sunriseMinute, int sunsetHour, int sunsetMinute) {
-        mSunriseSunsetView.setSunriseTime(new Time(sunriseHour, sunriseMinute));
-        mSunriseSunsetView.setSunsetTime(new Time(sunsetHour, sunsetMinute));
+        mSunriseSunsetView.setSunriseSunsetMinutes(sunriseHour * Time.MINUTES_PER_HOUR + sunriseMinute,
+                sunsetHour * Time.MINUTES_PER_HOUR + sunsetMinute);
         mSunriseSunsetView.startAnimate();
     }
 
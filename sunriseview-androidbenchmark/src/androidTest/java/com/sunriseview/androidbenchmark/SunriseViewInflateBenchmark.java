@@ -0,0 +1,55 @@
+package com.sunriseview.androidbenchmark;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import com.sunriseview.SunriseView;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Per-instance cost of inflating a {@link SunriseView} and of its first frame.
+ * Run with {@code ./gradlew :sunriseview-androidbenchmark:connectedAndroidTest} on a device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SunriseViewInflateBenchmark {
+
+    @Rule
+    public BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void inflate() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        LayoutInflater inflater = LayoutInflater.from(context);
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            inflater.inflate(com.sunriseview.androidbenchmark.test.R.layout.benchmark_sunrise_view, null, false);
+        }
+    }
+
+    @Test
+    public void inflateAndFirstDraw() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        LayoutInflater inflater = LayoutInflater.from(context);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(720, 400, Bitmap.Config.ARGB_8888));
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(720, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            View view = inflater.inflate(com.sunriseview.androidbenchmark.test.R.layout.benchmark_sunrise_view, null, false);
+            view.measure(widthSpec, heightSpec);
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            view.draw(canvas);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sunriseview;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per frame math of SunriseView: the ratio for a time of day and the sun position on the arc.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SunMathBenchmark {
+
+    private static final int SUNRISE = (6 * 60 + 17) * 60 * 1000;
+    private static final int SUNSET = (18 * 60 + 32) * 60 * 1000;
+
+    private int mMillisOfDay = SUNRISE;
+    private float mRatio;
+
+    @Benchmark
+    public float ratio() {
+        // walk through the day so the branch on the clamp is not constant
+        mMillisOfDay = (mMillisOfDay + 60 * 1000) % (24 * 60 * 60 * 1000);
+        return SunMath.ratio(mMillisOfDay, SUNRISE, SUNSET);
+    }
+
+    @Benchmark
+    public void sunPosition(Blackhole blackhole) {
+        mRatio = mRatio >= 1 ? 0 : mRatio + 0.001f;
+        blackhole.consume(SunMath.sunX(24, 300, mRatio));
+        blackhole.consume(SunMath.sunY(324, 300, mRatio));
+    }
+
+    @Benchmark
+    public long millisToNextPixel() {
+        mMillisOfDay = (mMillisOfDay + 60 * 1000) % (24 * 60 * 60 * 1000);
+        return SunMath.millisToNextPixel(Math.max(SUNRISE, Math.min(SUNSET - 1, mMillisOfDay)),
+                SUNRISE, SUNSET, 300);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sunriseview.oters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The String returning formatter against the appending one SunriseView uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LabelFormatterBenchmark {
+
+    private final SimpleSunriseSunsetLabelFormatter mFormatter = new SimpleSunriseSunsetLabelFormatter();
+    private final StringBuilder mBuilder = new StringBuilder(16);
+    private final Locale mLocale = Locale.US;
+    private int mMinuteOfDay;
+
+    private Time nextTime() {
+        mMinuteOfDay = (mMinuteOfDay + 7) % Time.MINUTES_PER_DAY;
+        return Time.ofMinuteOfDay(mMinuteOfDay);
+    }
+
+    @Benchmark
+    public String formatToString() {
+        return mFormatter.formatSunriseLabel(nextTime());
+    }
+
+    @Benchmark
+    public int appendToBuilder() {
+        mBuilder.setLength(0);
+        mFormatter.formatSunriseLabel(nextTime(), mLocale, mBuilder);
+        return mBuilder.length();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sunriseview.oters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time conversions; interned minutes should show no allocation in the gc profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimeBenchmark {
+
+    private final TimeZone mZone = TimeZone.getTimeZone("Asia/Dhaka");
+    private int mMinuteOfDay;
+    private int mSecondOfDay;
+    private long mEpochMillis = 1718943912000L;
+
+    @Benchmark
+    public Time ofMinuteOfDay() {
+        mMinuteOfDay = (mMinuteOfDay + 1) % Time.MINUTES_PER_DAY;
+        return Time.ofMinuteOfDay(mMinuteOfDay);
+    }
+
+    @Benchmark
+    public Time ofSecondOfDay() {
+        mSecondOfDay = (mSecondOfDay + 1) % Time.SECONDS_PER_DAY;
+        return Time.ofSecondOfDay(mSecondOfDay);
+    }
+
+    @Benchmark
+    public Time ofEpochMillis() {
+        mEpochMillis += 60 * 1000;
+        return Time.ofEpochMillis(mEpochMillis, mZone);
+    }
+
+    @Benchmark
+    public int toMinutes() {
+        mMinuteOfDay = (mMinuteOfDay + 1) % Time.MINUTES_PER_DAY;
+        return Time.ofMinuteOfDay(mMinuteOfDay).transformToMinutes();
+    }
+}
@@ -0,0 +1,67 @@
+package com.sunriseview.solar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolarCalculatorBenchmark {
+
+    private static final int LOCATIONS = 100;
+
+    private final SolarCalculator mCalculator = new SolarCalculator();
+    private final SolarTimes mTimes = new SolarTimes();
+    private final TimeZone mZone = TimeZone.getTimeZone("Asia/Dhaka");
+    private final double[] mLatitudes = new double[LOCATIONS];
+    private final double[] mLongitudes = new double[LOCATIONS];
+    private final int[] mUtcOffsets = new int[LOCATIONS];
+    private final int[] mSunrises = new int[LOCATIONS];
+    private final int[] mSunsets = new int[LOCATIONS];
+    private int mDay;
+
+    public SolarCalculatorBenchmark() {
+        for (int i = 0; i < LOCATIONS; i++) {
+            mLatitudes[i] = -60 + 120.0 * i / LOCATIONS;
+            mLongitudes[i] = -180 + 360.0 * i / LOCATIONS;
+            mUtcOffsets[i] = (int) Math.round(mLongitudes[i] / 15) * 60;
+        }
+    }
+
+    private int nextDay() {
+        mDay = mDay % 28 + 1;
+        return mDay;
+    }
+
+    /**
+     * All events (dawns, sunrise, noon, sunset, dusks) of one day.
+     */
+    @Benchmark
+    public SolarTimes computeAllEvents() {
+        mCalculator.compute(23.8103, 90.4125, 2025, 6, nextDay(), 360, mTimes);
+        return mTimes;
+    }
+
+    @Benchmark
+    public SolarTimes computeWithTimeZone() {
+        mCalculator.compute(23.8103, 90.4125, 2025, 6, nextDay(), mZone, mTimes);
+        return mTimes;
+    }
+
+    /**
+     * Sunrise and sunset of one day for {@value #LOCATIONS} locations.
+     */
+    @Benchmark
+    public int[] computeSunriseSunsetBatch() {
+        mCalculator.computeSunriseSunset(mLatitudes, mLongitudes, mUtcOffsets, 2025, 6, nextDay(),
+                mSunrises, mSunsets);
+        return mSunrises;
+    }
+}
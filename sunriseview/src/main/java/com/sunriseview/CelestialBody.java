@@ -0,0 +1,88 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+
+import com.sunriseview.oters.Time;
+
+/**
+ * A body drawn on the track of a {@link SunriseView} besides the sun, e.g. the moon or a
+ * marker. Add it with {@link SunriseView#addCelestialBody(CelestialBody)}.
+ * <p>
+ * A body with rise and set times moves with the time of day shown by the view, and is hidden
+ * while it is below the horizon. A marker stays at a fixed ratio. Bodies share the track
+ * geometry of the view, each only costs one sprite blit per frame. The drawable is rasterized
+ * once, when the body is created; bodies are immutable and may be added to several views.
+ */
+public final class CelestialBody {
+
+    private final Drawable mDrawable;
+    private final float mRadius;
+    // 升起与落下时间 (午夜后的秒数), 标记时为 -1
+    private final int mRiseSecond;
+    private final int mSetSecond;
+    private final float mFixedRatio;
+
+    // 光栅化后的图片, 与太阳共用 SunSpriteCache; 在构造时生成, 之后只读
+    private final Bitmap mSprite;
+
+    /**
+     * A body that rises at {@code riseTime} and sets at {@code setTime}; if {@code setTime} is
+     * before {@code riseTime} it sets on the next day, as the moon often does.
+     *
+     * @param radius sprite radius in pixels
+     */
+    public CelestialBody(Drawable drawable, float radius, Time riseTime, Time setTime) {
+        this(drawable, radius, riseTime.getSecondOfDay(), setTime.getSecondOfDay(), Float.NaN);
+        if (riseTime.equals(setTime)) {
+            throw new IllegalArgumentException("riseTime equals setTime: " + riseTime);
+        }
+    }
+
+    private CelestialBody(Drawable drawable, float radius, int riseSecond, int setSecond, float fixedRatio) {
+        if (drawable == null) {
+            throw new IllegalArgumentException("drawable == null");
+        }
+        mDrawable = drawable;
+        mRadius = radius;
+        mRiseSecond = riseSecond;
+        mSetSecond = setSecond;
+        mFixedRatio = fixedRatio;
+        int size = Math.round(2 * radius);
+        mSprite = size <= 0 ? null : SunSpriteCache.obtain(drawable, size, false, 0);
+    }
+
+    /**
+     * A marker that stays at {@code ratio} on the track, see {@link SunriseView#setRatio(float)}.
+     */
+    public static CelestialBody marker(Drawable drawable, float radius, float ratio) {
+        return new CelestialBody(drawable, radius, -1, -1, ratio);
+    }
+
+    public Drawable getDrawable() {
+        return mDrawable;
+    }
+
+    public float getRadius() {
+        return mRadius;
+    }
+
+    boolean isMarker() {
+        return !Float.isNaN(mFixedRatio);
+    }
+
+    /**
+     * @param secondOfDay the time shown by the view
+     * @return the position of the body on the track, outside [0, 1] while it is below the horizon
+     */
+    float ratioAt(int secondOfDay) {
+        if (isMarker()) {
+            return mFixedRatio;
+        }
+        return SunMath.bodyRatio(secondOfDay, mRiseSecond, mSetSecond, Time.SECONDS_PER_DAY);
+    }
+
+    Bitmap getSprite() {
+        return mSprite;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sunriseview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.text.TextUtils;
+
+import com.sunriseview.oters.AppendingSunriseSunsetLabelFormatter;
+import com.sunriseview.oters.SunriseSunsetLabelFormatter;
+import com.sunriseview.oters.Time;
+
+import java.util.Locale;
+
+/**
+ * A formatted label kept in a reusable char array.
+ */
+final class LabelBuffer {
+
+    private char[] mChars = new char[16];
+    private int mLength;
+
+    void set(CharSequence text) {
+        int length = text == null ? 0 : text.length();
+        if (length > mChars.length) {
+            mChars = new char[Math.max(length, mChars.length * 2)];
+        }
+        if (length > 0) {
+            TextUtils.getChars(text, 0, length, mChars, 0);
+        }
+        mLength = length;
+    }
+
+    /**
+     * Formats one sunrise/sunset pair, through {@code builder} when the formatter can append.
+     */
+    static void format(SunriseSunsetLabelFormatter formatter, Time sunriseTime, Time sunsetTime,
+                       Locale locale, StringBuilder builder, LabelBuffer sunrise, LabelBuffer sunset) {
+        if (formatter instanceof AppendingSunriseSunsetLabelFormatter) {
+            AppendingSunriseSunsetLabelFormatter appending = (AppendingSunriseSunsetLabelFormatter) formatter;
+            builder.setLength(0);
+            appending.formatSunriseLabel(sunriseTime, locale, builder);
+            sunrise.set(builder);
+            builder.setLength(0);
+            appending.formatSunsetLabel(sunsetTime, locale, builder);
+            sunset.set(builder);
+        } else {
+            sunrise.set(formatter.formatSunriseLabel(sunriseTime));
+            sunset.set(formatter.formatSunsetLabel(sunsetTime));
+        }
+    }
+
+    void draw(Canvas canvas, float x, float y, Paint paint) {
+        if (mLength > 0) {
+            canvas.drawText(mChars, 0, mLength, x, y, paint);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.sunriseview;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Geometry of one sun arc: the board, the track oval, the shadow path and the sun position.
+ * The track is only recomputed when the board changes, the sun and shadow when the ratio changes.
+ * <p>
+ * {@link SunriseStripView} uses one arc as the template for all of its days, the
+ * {@code dx} variants place the same arc shifted horizontally.
+ */
+final class SunArc {
+
+    /**
+     * 绘图区域
+     */
+    private final RectF mBoard = new RectF();
+    /**
+     * 轨迹圆的外接矩形
+     */
+    private final RectF mTrack = new RectF();
+    private final Path mShadowPath = new Path();
+    // 太阳图片所占区域
+    private final Rect mSunBounds = new Rect();
+    private final RectF mShiftedTrack = new RectF();
+    private float mTrackRadius;
+    private float mSunRadius;
+    private float mRatio;
+    private float mSunX;
+    private float mSunY;
+
+    /**
+     * @return true if the board changed
+     */
+    boolean setBoard(float left, float top, float right, float bottom, float sunRadius) {
+        if (mBoard.left == left && mBoard.top == top && mBoard.right == right && mBoard.bottom == bottom
+                && mSunRadius == sunRadius) {
+            return false;
+        }
+        mBoard.set(left, top, right, bottom);
+        mSunRadius = sunRadius;
+        mTrackRadius = mBoard.width() / 2;
+        mTrack.set(mBoard.left, mBoard.top, mBoard.right, mBoard.bottom + mBoard.height());
+        update();
+        return true;
+    }
+
+    void setRatio(float ratio) {
+        mRatio = ratio;
+        update();
+    }
+
+    // 更新太阳位置和阴影路径
+    private void update() {
+        mSunX = sunX(mRatio, 0);
+        mSunY = sunY(mRatio);
+
+        mShadowPath.rewind();
+        appendShadow(mShadowPath, mRatio, 0);
+
+        sunBounds(mSunX, mSunY, mSunBounds);
+    }
+
+    // 太阳在 (sunX, sunY) 时图片所占区域
+    void sunBounds(float sunX, float sunY, Rect out) {
+        out.set((int) Math.floor(sunX - mSunRadius), (int) Math.floor(sunY - mSunRadius),
+                (int) Math.ceil(sunX + mSunRadius), (int) Math.ceil(sunY + mSunRadius));
+    }
+
+    float sunX(float ratio, float dx) {
+        return dx + SunMath.sunX(mBoard.left, mTrackRadius, ratio);
+    }
+
+    float sunY(float ratio) {
+        return SunMath.sunY(mBoard.bottom, mTrackRadius, ratio);
+    }
+
+    /**
+     * @return the ratio of the track point closest to ({@code x}, {@code y})
+     */
+    float ratioAt(float x, float y) {
+        return SunMath.ratioAt(x, y, mBoard.left, mBoard.bottom, mTrackRadius);
+    }
+
+    // 把平移 dx 后的半圆轨迹追加到 path
+    void appendTrack(Path path, float dx) {
+        path.addArc(mTrack.left + dx, mTrack.top, mTrack.right + dx, mTrack.bottom, 180, 180);
+    }
+
+    // 把平移 dx 后、比率为 ratio 的阴影追加到 path
+    void appendShadow(Path path, float ratio, float dx) {
+        float endY = mBoard.bottom;
+        mShiftedTrack.set(mTrack);
+        mShiftedTrack.offset(dx, 0);
+        path.moveTo(mBoard.left + dx, endY);
+        path.arcTo(mShiftedTrack, 180, 180 * ratio);
+        path.lineTo(sunX(ratio, dx), endY);
+        path.close();
+    }
+
+    RectF getBoard() {
+        return mBoard;
+    }
+
+    RectF getTrack() {
+        return mTrack;
+    }
+
+    Path getShadowPath() {
+        return mShadowPath;
+    }
+
+    Rect getSunBounds() {
+        return mSunBounds;
+    }
+
+    float getTrackRadius() {
+        return mTrackRadius;
+    }
+
+    float getRatio() {
+        return mRatio;
+    }
+
+    float getSunX() {
+        return mSunX;
+    }
+
+    float getSunY() {
+        return mSunY;
+    }
+}
@@ -0,0 +1,92 @@
+package com.sunriseview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.TimeZone;
+
+/**
+ * Process wide ticker behind {@link SunriseView#setLiveMode(boolean)}. All attached, visible
+ * live views share one main thread callback, which is scheduled for the earliest moment any
+ * of them moves by a pixel and updates all of them in the same pass.
+ */
+final class SunClock implements Runnable {
+
+    static final int MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+    private static final long ZONE_REFRESH_MILLIS = 60 * 1000;
+
+    private static SunClock sInstance;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ArrayList<SunriseView> mViews = new ArrayList<>();
+    private long mScheduledAt = Long.MAX_VALUE;
+
+    // TimeZone.getDefault() returns a copy, refresh it at most once a minute
+    private TimeZone mZone;
+    private long mZoneCheckedAt;
+
+    static SunClock get() {
+        if (sInstance == null) {
+            sInstance = new SunClock();
+        }
+        return sInstance;
+    }
+
+    void register(SunriseView view) {
+        if (!mViews.contains(view)) {
+            mViews.add(view);
+        }
+        tick(view);
+    }
+
+    void unregister(SunriseView view) {
+        mViews.remove(view);
+        if (mViews.isEmpty()) {
+            mHandler.removeCallbacks(this);
+            mScheduledAt = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Updates one registered view right away, e.g. after its times or size changed.
+     */
+    void tick(SunriseView view) {
+        if (mViews.contains(view)) {
+            schedule(view.onClockTick(millisOfDay()));
+        }
+    }
+
+    @Override
+    public void run() {
+        mScheduledAt = Long.MAX_VALUE;
+        int millisOfDay = millisOfDay();
+        long delay = Long.MAX_VALUE;
+        for (int i = 0; i < mViews.size(); i++) {
+            delay = Math.min(delay, mViews.get(i).onClockTick(millisOfDay));
+        }
+        if (!mViews.isEmpty()) {
+            schedule(delay);
+        }
+    }
+
+    private void schedule(long delay) {
+        long at = SystemClock.uptimeMillis() + Math.max(0, delay);
+        if (at < mScheduledAt) {
+            mHandler.removeCallbacks(this);
+            mHandler.postAtTime(this, at);
+            mScheduledAt = at;
+        }
+    }
+
+    private int millisOfDay() {
+        long now = System.currentTimeMillis();
+        if (mZone == null || now - mZoneCheckedAt >= ZONE_REFRESH_MILLIS || now < mZoneCheckedAt) {
+            mZone = TimeZone.getDefault();
+            mZoneCheckedAt = now;
+        }
+        long local = now + mZone.getOffset(now);
+        return (int) (((local % MILLIS_PER_DAY) + MILLIS_PER_DAY) % MILLIS_PER_DAY);
+    }
+}
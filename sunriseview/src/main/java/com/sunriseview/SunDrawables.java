@@ -0,0 +1,60 @@
+package com.sunriseview;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.util.SparseArray;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * Sun drawables resolved from resources, at most one inflation per resource and configuration.
+ * Later views get a new drawable from the shared {@link Drawable.ConstantState}, so they
+ * also share the rasterized sprite and the renderer.
+ * <p>
+ * Views may be inflated off the main thread (AsyncLayoutInflater), so access is synchronized.
+ */
+final class SunDrawables {
+
+    private static final SparseArray<Entry> sEntries = new SparseArray<>();
+
+    private SunDrawables() {
+    }
+
+    static Drawable get(Context context, int resId) {
+        Resources res = context.getResources();
+        Configuration config = res.getConfiguration();
+        synchronized (sEntries) {
+            Entry entry = sEntries.get(resId);
+            if (entry != null && entry.matches(config)) {
+                return entry.mState.newDrawable(res, context.getTheme());
+            }
+        }
+        Drawable drawable = ContextCompat.getDrawable(context, resId);
+        Drawable.ConstantState state = drawable == null ? null : drawable.getConstantState();
+        if (state != null) {
+            synchronized (sEntries) {
+                sEntries.put(resId, new Entry(state, config));
+            }
+        }
+        return drawable;
+    }
+
+    private static final class Entry {
+        private final Drawable.ConstantState mState;
+        private final int mDensityDpi;
+        private final int mUiMode;
+
+        Entry(Drawable.ConstantState state, Configuration config) {
+            mState = state;
+            mDensityDpi = config.densityDpi;
+            mUiMode = config.uiMode;
+        }
+
+        // 屏幕密度或夜间模式变化后资源可能不同
+        boolean matches(Configuration config) {
+            return mDensityDpi == config.densityDpi && mUiMode == config.uiMode;
+        }
+    }
+}
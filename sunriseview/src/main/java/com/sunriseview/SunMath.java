@@ -0,0 +1,69 @@
+package com.sunriseview;
+
+/**
+ * Pure math of the sun position, free of Android types so it can also be benchmarked on
+ * the JVM (see the {@code sunriseview-benchmark} module).
+ */
+final class SunMath {
+
+    private SunMath() {
+    }
+
+    /**
+     * 日出日落比率, clamped to [0, 1]. All arguments in the same unit (e.g. seconds of day).
+     */
+    static float ratio(int time, int sunrise, int sunset) {
+        float ratio = 1.0f * (time - sunrise) / (sunset - sunrise);
+        return ratio <= 0 ? 0 : (ratio > 1.0f ? 1 : ratio);
+    }
+
+    static float sunX(float trackLeft, float trackRadius, float ratio) {
+        return trackLeft + trackRadius - trackRadius * (float) Math.cos(Math.PI * ratio);
+    }
+
+    static float sunY(float trackBottom, float trackRadius, float ratio) {
+        return trackBottom - trackRadius * (float) Math.sin(Math.PI * ratio);
+    }
+
+    /**
+     * Inverse of {@link #sunX} / {@link #sunY}: the ratio of the track point closest to
+     * ({@code x}, {@code y}), in [0, 1]. Points below the horizon map to the nearer end.
+     */
+    static float ratioAt(float x, float y, float trackLeft, float trackBottom, float trackRadius) {
+        double dx = trackLeft + trackRadius - x;
+        double dy = Math.max(0, trackBottom - y);
+        return (float) (Math.atan2(dy, dx) / Math.PI);
+    }
+
+    /**
+     * Inverse of {@link #ratio}: the time at {@code ratio}, in the unit of the arguments.
+     */
+    static int timeAt(float ratio, int sunrise, int sunset) {
+        return sunrise + Math.round(ratio * (sunset - sunrise));
+    }
+
+    /**
+     * Position of a body that rises at {@code rise} and sets at {@code set} (on the next day if
+     * before {@code rise}), as a ratio of its own day arc; above 1 while it is below the horizon.
+     */
+    static float bodyRatio(int time, int rise, int set, int period) {
+        int length = floorMod(set - rise, period);
+        return length == 0 ? -1 : (float) floorMod(time - rise, period) / length;
+    }
+
+    private static int floorMod(int x, int period) {
+        return ((x % period) + period) % period;
+    }
+
+    /**
+     * @return milliseconds from {@code time} until the sun next crosses a whole pixel along a
+     * track of {@code trackRadius}, at least 1 and at most until sunset
+     */
+    static long millisToNextPixel(int time, int sunrise, int sunset, float trackRadius) {
+        double length = Math.PI * trackRadius;
+        int day = sunset - sunrise;
+        double position = (double) (time - sunrise) / day * length;
+        long at = sunrise + (long) Math.ceil((Math.floor(position) + 1) / length * day);
+        return Math.max(1, Math.min(at, sunset) - time);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * Display lists of a {@link SunriseView} on hardware accelerated canvases, see
+ * {@link SunriseView#setRenderNodeEnabled(boolean)}.
+ * <p>
+ * The track and the labels, the shadow and the sun are kept in separate {@link RenderNode}s.
+ * The static node is re-recorded only after {@link #invalidate()} or when the size, the track
+ * or the renderer changes, the shadow node when the ratio changes, and the sun node only when
+ * its sprite changes: moving the sun just sets the node's translation.
+ */
+@RequiresApi(Build.VERSION_CODES.Q)
+final class SunRenderNodes {
+
+    private final RenderNode mStaticNode = new RenderNode("SunriseView.track");
+    private final RenderNode mShadowNode = new RenderNode("SunriseView.shadow");
+    private final RenderNode mSunNode = new RenderNode("SunriseView.sun");
+
+    private final RectF mStaticTrack = new RectF();
+    private SunriseRenderer mStaticRenderer;
+    private boolean mStaticDirty = true;
+
+    private final RectF mShadowTrack = new RectF();
+    private SunriseRenderer mShadowRenderer;
+    private float mShadowRatio;
+
+    private Bitmap mSunSprite;
+
+    void invalidate() {
+        mStaticDirty = true;
+    }
+
+    /**
+     * @return true if the static node has to be recorded again before it can be drawn
+     */
+    boolean isStaticDirty(SunriseRenderer renderer, int width, int height, RectF track) {
+        return mStaticDirty || !mStaticNode.hasDisplayList() || renderer != mStaticRenderer
+                || mStaticNode.getWidth() != width || mStaticNode.getHeight() != height
+                || !mStaticTrack.equals(track);
+    }
+
+    Canvas beginStaticRecording(SunriseRenderer renderer, int width, int height, RectF track) {
+        mStaticNode.setPosition(0, 0, width, height);
+        mStaticTrack.set(track);
+        mStaticRenderer = renderer;
+        return mStaticNode.beginRecording(width, height);
+    }
+
+    void endStaticRecording() {
+        mStaticNode.endRecording();
+        mStaticDirty = false;
+    }
+
+    void drawStatic(Canvas canvas) {
+        canvas.drawRenderNode(mStaticNode);
+    }
+
+    // 阴影随比率变化, 只重新录制这一个节点
+    void drawShadow(Canvas canvas, SunriseRenderer renderer, SunArc arc, int width, int height) {
+        if (!mShadowNode.hasDisplayList() || renderer != mShadowRenderer
+                || arc.getRatio() != mShadowRatio || !mShadowTrack.equals(arc.getTrack())
+                || mShadowNode.getWidth() != width || mShadowNode.getHeight() != height) {
+            mShadowNode.setPosition(0, 0, width, height);
+            renderer.drawShadow(mShadowNode.beginRecording(width, height), arc);
+            mShadowNode.endRecording();
+            mShadowRenderer = renderer;
+            mShadowRatio = arc.getRatio();
+            mShadowTrack.set(arc.getTrack());
+        }
+        canvas.drawRenderNode(mShadowNode);
+    }
+
+    // 太阳节点只录制一次位图, 移动时只改平移属性
+    void drawSun(Canvas canvas, SunriseRenderer renderer, SunArc arc) {
+        Bitmap sprite = renderer.getSunSprite();
+        if (sprite == null) {
+            return;
+        }
+        int width = sprite.getWidth();
+        int height = sprite.getHeight();
+        if (sprite != mSunSprite || !mSunNode.hasDisplayList()) {
+            mSunNode.setPosition(0, 0, width, height);
+            renderer.drawSun(mSunNode.beginRecording(width, height), width / 2f, height / 2f);
+            mSunNode.endRecording();
+            mSunSprite = sprite;
+        }
+        mSunNode.setTranslationX(arc.getSunX() - width / 2f);
+        mSunNode.setTranslationY(arc.getSunY() - height / 2f);
+        canvas.drawRenderNode(mSunNode);
+    }
+
+    void release() {
+        mStaticNode.discardDisplayList();
+        mShadowNode.discardDisplayList();
+        mSunNode.discardDisplayList();
+        mStaticRenderer = null;
+        mShadowRenderer = null;
+        mSunSprite = null;
+        mStaticDirty = true;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+/**
+ * Rasterized sun drawables, shared by all views that draw the same drawable
+ * ({@link Drawable.ConstantState}) at the same pixel size and tint.
+ * The cache is thread safe; callers on other threads pass their own drawable instance,
+ * since rasterizing changes its bounds for a moment.
+ */
+final class SunSpriteCache {
+
+    private static final int MAX_SIZE_BYTES = 4 * 1024 * 1024;
+
+    private static final LruCache<Key, Bitmap> sCache = new LruCache<Key, Bitmap>(MAX_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+            return value.getAllocationByteCount();
+        }
+    };
+
+    private SunSpriteCache() {
+    }
+
+    /**
+     * @param tinted if true the sprite is filled with {@code tint}, keeping the drawable's alpha
+     */
+    static Bitmap obtain(Drawable drawable, int size, boolean tinted, int tint) {
+        Drawable.ConstantState state = drawable.getConstantState();
+        if (state == null) {
+            // unknown drawables can not be matched, rasterize them for the caller only
+            return rasterize(drawable, size, tinted, tint);
+        }
+        Key key = new Key(state, size, tinted, tint);
+        Bitmap sprite = sCache.get(key);
+        if (sprite == null) {
+            sprite = rasterize(drawable, size, tinted, tint);
+            sCache.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    private static Bitmap rasterize(Drawable drawable, int size, boolean tinted, int tint) {
+        Bitmap sprite = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(sprite);
+        Rect bounds = drawable.copyBounds();
+        drawable.setBounds(0, 0, size, size);
+        drawable.draw(canvas);
+        drawable.setBounds(bounds);
+        if (tinted) {
+            canvas.drawColor(tint, PorterDuff.Mode.SRC_IN);
+        }
+        sprite.prepareToDraw();
+        return sprite;
+    }
+
+    private static final class Key {
+        private final Drawable.ConstantState mState;
+        private final int mSize;
+        private final boolean mTinted;
+        private final int mTint;
+
+        Key(Drawable.ConstantState state, int size, boolean tinted, int tint) {
+            mState = state;
+            mSize = size;
+            mTinted = tinted;
+            mTint = tinted ? tint : 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return mState == other.mState && mSize == other.mSize
+                    && mTinted == other.mTinted && mTint == other.mTint;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(mState);
+            result = 31 * result + mSize;
+            result = 31 * result + (mTinted ? 1 : 0);
+            return 31 * result + mTint;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.sunriseview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import com.sunriseview.oters.SimpleSunriseSunsetLabelFormatter;
+import com.sunriseview.oters.SunriseSunsetLabelFormatter;
+import com.sunriseview.oters.Time;
+
+import java.util.Locale;
+
+/**
+ * Renders sun arcs into bitmaps without a {@link SunriseView}, e.g. for app widgets and
+ * notifications. Can be called from any thread; calls on one instance are serialized, use
+ * several instances to render in parallel.
+ * <p>
+ * Rendered bitmaps are kept in an LRU cache keyed by size, style, times, locale and the sun
+ * position rounded to whole pixels, so identical updates (other cities with the same times,
+ * minutes in which the sun moved less than a pixel) return the same bitmap. Returned bitmaps
+ * are shared: do not modify or recycle them.
+ */
+public final class SunriseBitmapRenderer {
+
+    // 样式不同的 renderer 最多保留几个
+    private static final int MAX_RENDERERS = 8;
+
+    private final Resources mResources;
+    private final LruCache<Key, Bitmap> mCache;
+    // 按访问顺序淘汰, 只丢弃最久未用的样式和它的缓存层
+    private final LruCache<SunriseStyle, SunriseRenderer> mRenderers = new LruCache<>(MAX_RENDERERS);
+
+    private SunriseSunsetLabelFormatter mLabelFormatter = new SimpleSunriseSunsetLabelFormatter();
+    // 查找缓存用的可复用 key, 只在插入时复制
+    private final Key mLookupKey = new Key();
+    private final SunArc mArc = new SunArc();
+    private final LabelBuffer mSunriseLabel = new LabelBuffer();
+    private final LabelBuffer mSunsetLabel = new LabelBuffer();
+    private final StringBuilder mLabelBuilder = new StringBuilder(16);
+
+    /**
+     * @param resources     used to load sun drawables given by resource id, may be null if all
+     *                      styles carry a drawable
+     * @param maxCacheBytes size of the bitmap cache, 0 disables caching
+     */
+    public SunriseBitmapRenderer(Resources resources, int maxCacheBytes) {
+        mResources = resources;
+        mCache = maxCacheBytes <= 0 ? null : new LruCache<Key, Bitmap>(maxCacheBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Renders the arc of {@code style} into a {@code width} x {@code height} bitmap, the
+     * track as large as fits. Labels are skipped if either time is null.
+     *
+     * @param ratio 日出日落比率, see {@link SunriseView#setRatio(float)}
+     */
+    public synchronized Bitmap render(int width, int height, SunriseStyle style,
+                                      Time sunriseTime, Time sunsetTime, float ratio) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+        }
+        float sunRadius = style.getSunRadius();
+        float trackRadius = Math.max(0, Math.min((width - 2 * sunRadius) / 2, height - sunRadius));
+        // 太阳位置取整到像素, 移动不足一个像素的更新复用同一张图
+        int sunStep = Math.round(ratio * (float) Math.PI * trackRadius);
+        float quantizedRatio = trackRadius > 0 ? sunStep / ((float) Math.PI * trackRadius) : ratio;
+        Locale locale = Locale.getDefault();
+
+        if (mCache != null) {
+            mLookupKey.set(width, height, style, sunriseTime, sunsetTime, sunStep, locale);
+            Bitmap cached = mCache.get(mLookupKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        float left = (width - 2 * trackRadius) / 2;
+        mArc.setBoard(left, height - trackRadius, left + 2 * trackRadius, height, sunRadius);
+        mArc.setRatio(quantizedRatio);
+
+        SunriseRenderer renderer = getRenderer(style);
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        renderer.drawTrack(canvas, mArc);
+        renderer.drawShadow(canvas, mArc);
+        renderer.drawSun(canvas, mArc);
+        if (sunriseTime != null && sunsetTime != null) {
+            LabelBuffer.format(mLabelFormatter, sunriseTime, sunsetTime, locale, mLabelBuilder,
+                    mSunriseLabel, mSunsetLabel);
+            renderer.drawLabels(canvas, mArc, mSunriseLabel, mSunsetLabel);
+        }
+        bitmap.prepareToDraw();
+
+        if (mCache != null) {
+            mCache.put(mLookupKey.copy(), bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Formats the labels of the following renders, e.g. the formatter of the app's
+     * {@link SunriseView}s. Drops the cached bitmaps.
+     */
+    public synchronized void setLabelFormatter(SunriseSunsetLabelFormatter labelFormatter) {
+        mLabelFormatter = labelFormatter;
+        if (mCache != null) {
+            mCache.evictAll();
+        }
+    }
+
+    public synchronized SunriseSunsetLabelFormatter getLabelFormatter() {
+        return mLabelFormatter;
+    }
+
+    /**
+     * Drops all cached bitmaps and renderers.
+     */
+    public synchronized void clear() {
+        if (mCache != null) {
+            mCache.evictAll();
+        }
+        mRenderers.evictAll();
+    }
+
+    // 每个样式一个独立的 renderer, 不和主线程的 View 共享
+    synchronized SunriseRenderer getRenderer(SunriseStyle style) {
+        SunriseRenderer renderer = mRenderers.get(style);
+        if (renderer == null) {
+            // 同一个副本既是 key 也是 renderer 的样式, 太阳图片单独传入, 不改变 key
+            SunriseStyle copy = new SunriseStyle(style);
+            renderer = SunriseRenderer.create(copy, newSunDrawable(style));
+            mRenderers.put(copy, renderer);
+        }
+        return renderer;
+    }
+
+    // 光栅化会临时改变图片的 bounds, 使用自己的图片实例
+    private Drawable newSunDrawable(SunriseStyle style) {
+        Drawable drawable = style.getSunDrawable();
+        if (drawable != null) {
+            Drawable.ConstantState state = drawable.getConstantState();
+            // mutate: the new drawable must not share state with drawables on the main thread
+            return state != null ? state.newDrawable(mResources).mutate() : drawable;
+        }
+        if (style.getSunDrawableResource() != 0 && mResources != null) {
+            return mResources.getDrawable(style.getSunDrawableResource(), null).mutate();
+        }
+        return null;
+    }
+
+    private static final class Key {
+        private int mWidth;
+        private int mHeight;
+        private SunriseStyle mStyle;
+        private int mSunriseSecond;
+        private int mSunsetSecond;
+        private int mSunStep;
+        private Locale mLocale;
+
+        // 只引用调用者的样式, 查找时不复制
+        void set(int width, int height, SunriseStyle style, Time sunriseTime, Time sunsetTime,
+                 int sunStep, Locale locale) {
+            mWidth = width;
+            mHeight = height;
+            mStyle = style;
+            mSunriseSecond = sunriseTime == null ? -1 : sunriseTime.getSecondOfDay();
+            mSunsetSecond = sunsetTime == null ? -1 : sunsetTime.getSecondOfDay();
+            mSunStep = sunStep;
+            mLocale = locale;
+        }
+
+        // 插入缓存的 key 持有样式的副本
+        Key copy() {
+            Key key = new Key();
+            key.mWidth = mWidth;
+            key.mHeight = mHeight;
+            key.mStyle = new SunriseStyle(mStyle);
+            key.mSunriseSecond = mSunriseSecond;
+            key.mSunsetSecond = mSunsetSecond;
+            key.mSunStep = mSunStep;
+            key.mLocale = mLocale;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return mWidth == other.mWidth && mHeight == other.mHeight
+                    && mSunriseSecond == other.mSunriseSecond && mSunsetSecond == other.mSunsetSecond
+                    && mSunStep == other.mSunStep && mLocale.equals(other.mLocale)
+                    && mStyle.equals(other.mStyle);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + mStyle.hashCode();
+            result = 31 * result + mSunriseSecond;
+            result = 31 * result + mSunsetSecond;
+            result = 31 * result + mSunStep;
+            return 31 * result + mLocale.hashCode();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.sunriseview;
+
+import android.os.Trace;
+
+/**
+ * Optional draw instrumentation for {@link SunriseView}: time spent per draw phase, draw and
+ * invalidate counts, animator frames and layer/label cache hits.
+ * <p>
+ * Attach with {@link SunriseView#setMetrics(SunriseMetrics)}; one instance may be shared by
+ * several views. Views without metrics only pay a null check per phase. With
+ * {@code traceSections} every phase is also wrapped in an {@link Trace} section, visible in
+ * systrace / Perfetto.
+ * <p>
+ * Counters are updated and read on the main thread.
+ */
+public final class SunriseMetrics {
+
+    public static final int PHASE_TRACK = 0;
+    public static final int PHASE_SHADOW = 1;
+    public static final int PHASE_SUN = 2;
+    public static final int PHASE_LABELS = 3;
+    // blitting (and re-recording) a cached track layer
+    public static final int PHASE_TRACK_LAYER = 4;
+    public static final int PHASE_SKY = 5;
+    // moon and markers
+    public static final int PHASE_BODIES = 6;
+    public static final int PHASE_COUNT = 7;
+
+    private static final String[] SECTION_NAMES = {
+            "SunriseView.drawTrack",
+            "SunriseView.drawShadow",
+            "SunriseView.drawSun",
+            "SunriseView.drawLabels",
+            "SunriseView.drawTrackLayer",
+            "SunriseView.drawSky",
+            "SunriseView.drawBodies",
+    };
+    private static final String DRAW_SECTION_NAME = "SunriseView.onDraw";
+
+    /**
+     * Called after every instrumented onDraw.
+     */
+    public interface OnFrameListener {
+        void onFrameDrawn(SunriseView view, long drawNanos);
+    }
+
+    private final boolean mTraceSections;
+    private final long[] mPhaseCounts = new long[PHASE_COUNT];
+    private final long[] mPhaseNanos = new long[PHASE_COUNT];
+    private long mDraws;
+    private long mDrawNanos;
+    private long mInvalidations;
+    private long mAnimatorFrames;
+    private long mLayerHits;
+    private long mLayerMisses;
+    private long mLabelHits;
+    private long mLabelMisses;
+    private long mRenderedUpdates;
+    private long mSkippedUpdates;
+    private OnFrameListener mOnFrameListener;
+
+    public SunriseMetrics() {
+        this(false);
+    }
+
+    /**
+     * @param traceSections also emit {@link Trace} sections per phase
+     */
+    public SunriseMetrics(boolean traceSections) {
+        mTraceSections = traceSections;
+    }
+
+    public void setOnFrameListener(OnFrameListener listener) {
+        mOnFrameListener = listener;
+    }
+
+    long beginDraw() {
+        if (mTraceSections) {
+            Trace.beginSection(DRAW_SECTION_NAME);
+        }
+        return System.nanoTime();
+    }
+
+    void endDraw(SunriseView view, long start) {
+        long nanos = System.nanoTime() - start;
+        mDraws++;
+        mDrawNanos += nanos;
+        if (mTraceSections) {
+            Trace.endSection();
+        }
+        if (mOnFrameListener != null) {
+            mOnFrameListener.onFrameDrawn(view, nanos);
+        }
+    }
+
+    long beginPhase(int phase) {
+        if (mTraceSections) {
+            Trace.beginSection(SECTION_NAMES[phase]);
+        }
+        return System.nanoTime();
+    }
+
+    void endPhase(int phase, long start) {
+        mPhaseNanos[phase] += System.nanoTime() - start;
+        mPhaseCounts[phase]++;
+        if (mTraceSections) {
+            Trace.endSection();
+        }
+    }
+
+    void onInvalidate() {
+        mInvalidations++;
+    }
+
+    void onAnimatorFrame() {
+        mAnimatorFrames++;
+    }
+
+    void onLayer(boolean hit) {
+        if (hit) {
+            mLayerHits++;
+        } else {
+            mLayerMisses++;
+        }
+    }
+
+    void onLabels(boolean hit) {
+        if (hit) {
+            mLabelHits++;
+        } else {
+            mLabelMisses++;
+        }
+    }
+
+    void onRatioUpdate(boolean rendered) {
+        if (rendered) {
+            mRenderedUpdates++;
+        } else {
+            mSkippedUpdates++;
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    public void reset() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mPhaseCounts[i] = 0;
+            mPhaseNanos[i] = 0;
+        }
+        mDraws = 0;
+        mDrawNanos = 0;
+        mInvalidations = 0;
+        mAnimatorFrames = 0;
+        mLayerHits = 0;
+        mLayerMisses = 0;
+        mLabelHits = 0;
+        mLabelMisses = 0;
+        mRenderedUpdates = 0;
+        mSkippedUpdates = 0;
+    }
+
+    /**
+     * The counters at the time of {@link #snapshot()}.
+     */
+    public static final class Snapshot {
+        public final long draws;
+        public final long drawNanos;
+        public final long invalidations;
+        public final long animatorFrames;
+        // track layer re-used / (re-)recorded
+        public final long layerHits;
+        public final long layerMisses;
+        // formatted labels re-used / formatted
+        public final long labelHits;
+        public final long labelMisses;
+        // setRatio calls that invalidated / were skipped as sub-pixel moves in power save mode
+        public final long renderedUpdates;
+        public final long skippedUpdates;
+        private final long[] mPhaseCounts;
+        private final long[] mPhaseNanos;
+
+        private Snapshot(SunriseMetrics metrics) {
+            draws = metrics.mDraws;
+            drawNanos = metrics.mDrawNanos;
+            invalidations = metrics.mInvalidations;
+            animatorFrames = metrics.mAnimatorFrames;
+            layerHits = metrics.mLayerHits;
+            layerMisses = metrics.mLayerMisses;
+            labelHits = metrics.mLabelHits;
+            labelMisses = metrics.mLabelMisses;
+            renderedUpdates = metrics.mRenderedUpdates;
+            skippedUpdates = metrics.mSkippedUpdates;
+            mPhaseCounts = metrics.mPhaseCounts.clone();
+            mPhaseNanos = metrics.mPhaseNanos.clone();
+        }
+
+        /**
+         * @param phase one of the {@code PHASE_*} constants
+         */
+        public long getPhaseCount(int phase) {
+            return mPhaseCounts[phase];
+        }
+
+        public long getPhaseNanos(int phase) {
+            return mPhaseNanos[phase];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("SunriseMetrics{draws=").append(draws)
+                    .append(", drawNanos=").append(drawNanos)
+                    .append(", invalidations=").append(invalidations)
+                    .append(", animatorFrames=").append(animatorFrames)
+                    .append(", layer=").append(layerHits).append('/').append(layerMisses)
+                    .append(", labels=").append(labelHits).append('/').append(labelMisses)
+                    .append(", updates=").append(renderedUpdates).append('/').append(skippedUpdates);
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                sb.append(", ").append(SECTION_NAMES[i]).append('=')
+                        .append(mPhaseCounts[i]).append('x').append(mPhaseNanos[i]).append("ns");
+            }
+            return sb.append('}').toString();
+        }
+    }
+}
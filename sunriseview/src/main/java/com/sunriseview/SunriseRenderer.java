@@ -0,0 +1,206 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Draws sun arcs of one {@link SunriseStyle}. Renderers are pooled by style, so all views
+ * that look the same share the paints, the path effect, the sun sprite and the cached track
+ * layers; the views only keep their own geometry, ratio and labels.
+ * Pooled renderers are only used on the main thread, see {@link #create} for others.
+ */
+final class SunriseRenderer {
+
+    // distinct sizes of the same style that keep a cached track layer
+    private static final int MAX_TRACK_LAYERS = 4;
+
+    private static final HashMap<SunriseStyle, WeakReference<SunriseRenderer>> sPool = new HashMap<>();
+
+    private final SunriseStyle mStyle;
+    // 太阳图片, 池中的 renderer 取自样式, 独立的 renderer 可以使用自己的实例
+    private final Drawable mSunDrawable;
+
+    private final Paint mTrackPaint;  // 绘制半圆轨迹的Paint
+    private final Paint mShadowPaint; // 绘制日出日落阴影的Paint
+    private final Paint mSunSpritePaint;
+    private final TextPaint mSunriseLabelPaint;   // 绘制日出时间的Paint
+    private final TextPaint mSunsetLabelPaint;   // 绘制日落时间的Paint
+    private final Paint.FontMetricsInt mLabelFontMetrics = new Paint.FontMetricsInt();
+
+    private Bitmap mSunSprite;
+    private boolean mSunSpriteResolved;
+
+    // most recently used first
+    private final ArrayList<TrackLayerCache> mTrackLayers = new ArrayList<>(MAX_TRACK_LAYERS);
+
+    /**
+     * Returns the shared renderer for {@code style}. The style is copied, later changes to it
+     * have no effect on the returned renderer.
+     */
+    static SunriseRenderer obtain(SunriseStyle style) {
+        synchronized (sPool) {
+            WeakReference<SunriseRenderer> ref = sPool.get(style);
+            SunriseRenderer renderer = ref == null ? null : ref.get();
+            if (renderer == null) {
+                purgeLocked();
+                SunriseStyle copy = new SunriseStyle(style);
+                renderer = new SunriseRenderer(copy, copy.getSunDrawable());
+                sPool.put(renderer.mStyle, new WeakReference<>(renderer));
+            }
+            return renderer;
+        }
+    }
+
+    /**
+     * Returns a renderer of its own for {@code style}, e.g. for drawing off the main thread.
+     * The style is not copied, the caller must not change it afterwards.
+     *
+     * @param sunDrawable drawn instead of the drawable of {@code style}, null for none
+     */
+    static SunriseRenderer create(SunriseStyle style, Drawable sunDrawable) {
+        return new SunriseRenderer(style, sunDrawable);
+    }
+
+    /**
+     * Forgets all shared renderers, so tests start from empty track layers. Views keep the
+     * renderer they already hold.
+     */
+    static void resetPool() {
+        synchronized (sPool) {
+            sPool.clear();
+        }
+    }
+
+    private static void purgeLocked() {
+        Iterator<Map.Entry<SunriseStyle, WeakReference<SunriseRenderer>>> it = sPool.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().get() == null) {
+                it.remove();
+            }
+        }
+    }
+
+    private SunriseRenderer(SunriseStyle style, Drawable sunDrawable) {
+        mStyle = style;
+        mSunDrawable = sunDrawable;
+
+        mTrackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mTrackPaint.setStyle(Paint.Style.STROKE);
+        mTrackPaint.setColor(style.getTrackColor());
+        mTrackPaint.setStrokeWidth(style.getTrackWidth());
+        mTrackPaint.setPathEffect(style.getTrackPathEffect());
+
+        mShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mShadowPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        mShadowPaint.setColor(style.getShadowColor());
+
+        mSunSpritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        mSunriseLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mSunriseLabelPaint.setColor(style.getLabelTextColor());
+        mSunriseLabelPaint.setTextSize(style.getLabelTextSize());
+        mSunriseLabelPaint.setTextAlign(Paint.Align.LEFT);
+        mSunsetLabelPaint = new TextPaint(mSunriseLabelPaint);
+        mSunsetLabelPaint.setTextAlign(Paint.Align.RIGHT);
+        mSunriseLabelPaint.getFontMetricsInt(mLabelFontMetrics);
+    }
+
+    SunriseStyle getStyle() {
+        return mStyle;
+    }
+
+    // 绘制太阳轨道（半圆）
+    void drawTrack(Canvas canvas, SunArc arc) {
+        canvas.drawArc(arc.getTrack(), 180, 180, false, mTrackPaint);
+    }
+
+    /**
+     * 绘制缓存的轨迹层, 同样式同尺寸的 View 共享一个缓存层
+     *
+     * @return true if the cached layer was reused
+     */
+    boolean drawTrackLayer(Canvas canvas, SunArc arc, int width, int height) {
+        TrackLayerCache layer = null;
+        for (int i = 0; i < mTrackLayers.size(); i++) {
+            if (mTrackLayers.get(i).matches(width, height, arc.getTrack())) {
+                layer = mTrackLayers.remove(i);
+                break;
+            }
+        }
+        if (layer == null) {
+            layer = mTrackLayers.size() < MAX_TRACK_LAYERS
+                    ? new TrackLayerCache() : mTrackLayers.remove(mTrackLayers.size() - 1);
+        }
+        mTrackLayers.add(0, layer);
+        boolean dirty = layer.isDirty(width, height, arc.getTrack());
+        if (dirty) {
+            drawTrack(layer.beginRecording(width, height, arc.getTrack()), arc);
+            layer.endRecording();
+        }
+        layer.draw(canvas);
+        return !dirty;
+    }
+
+    // 一次绘制多条轨迹
+    void drawTracks(Canvas canvas, Path tracks) {
+        canvas.drawPath(tracks, mTrackPaint);
+    }
+
+    // 绘制日出日落阴影部分
+    void drawShadow(Canvas canvas, SunArc arc) {
+        drawShadows(canvas, arc.getShadowPath());
+    }
+
+    void drawShadows(Canvas canvas, Path shadows) {
+        canvas.drawPath(shadows, mShadowPaint);
+    }
+
+    // 绘制太阳, 只平移缓存的位图
+    void drawSun(Canvas canvas, SunArc arc) {
+        drawSun(canvas, arc.getSunX(), arc.getSunY());
+    }
+
+    void drawSun(Canvas canvas, float sunX, float sunY) {
+        Bitmap sprite = getSunSprite();
+        if (sprite != null) {
+            canvas.drawBitmap(sprite, sunX - sprite.getWidth() / 2f,
+                    sunY - sprite.getHeight() / 2f, mSunSpritePaint);
+        }
+    }
+
+    // 绘制日出日落标签
+    void drawLabels(Canvas canvas, SunArc arc, LabelBuffer sunrise, LabelBuffer sunset) {
+        drawLabels(canvas, arc, 0, sunrise, sunset);
+    }
+
+    // 绘制平移 dx 后的日出日落标签
+    void drawLabels(Canvas canvas, SunArc arc, float dx, LabelBuffer sunrise, LabelBuffer sunset) {
+        float sunRadius = mStyle.getSunRadius();
+        float baseLineY = arc.getBoard().bottom - mLabelFontMetrics.bottom - mStyle.getLabelVerticalOffset();
+        float baseLineX = dx + arc.getBoard().left + sunRadius + mStyle.getLabelHorizontalOffset();
+        sunrise.draw(canvas, baseLineX, baseLineY, mSunriseLabelPaint);
+
+        baseLineX = dx + arc.getBoard().right - sunRadius - mStyle.getLabelHorizontalOffset();
+        sunset.draw(canvas, baseLineX, baseLineY, mSunsetLabelPaint);
+    }
+
+    Bitmap getSunSprite() {
+        if (!mSunSpriteResolved) {
+            int size = Math.round(2 * mStyle.getSunRadius());
+            mSunSprite = mSunDrawable == null || size <= 0 ? null
+                    : SunSpriteCache.obtain(mSunDrawable, size, mStyle.isSunTinted(), mStyle.getSunColor());
+            mSunSpriteResolved = true;
+        }
+        return mSunSprite;
+    }
+}
@@ -0,0 +1,397 @@
+package com.sunriseview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.OverScroller;
+
+import com.sunriseview.oters.SimpleSunriseSunsetLabelFormatter;
+import com.sunriseview.oters.SunriseSunsetLabelFormatter;
+import com.sunriseview.oters.Time;
+
+import java.util.Locale;
+
+/**
+ * Sunrise arcs of several days side by side, e.g. a week or month forecast, drawn in one
+ * onDraw instead of one {@link SunriseView} per day.
+ * <p>
+ * All days share one arc geometry and one {@link SunriseRenderer}: the tracks and shadows of
+ * the visible days are batched into one path each, labels are drawn in one pass.
+ * The strip scrolls horizontally and only draws the days in view.
+ */
+public class SunriseStripView extends View {
+
+    private static final int DEFAULT_DAY_WIDTH_PX = 360;
+
+    private static final Time[] NO_TIMES = new Time[0];
+
+    private final SunriseStyle mStyle = new SunriseStyle();
+    private SunriseRenderer mRenderer;
+
+    // 每天的宽度
+    private int mDayWidth = DEFAULT_DAY_WIDTH_PX;
+
+    private Time[] mSunriseTimes = NO_TIMES;
+    private Time[] mSunsetTimes = NO_TIMES;
+    // 每天的日出日落比率
+    private float[] mRatios = new float[0];
+
+    private SunriseSunsetLabelFormatter mLabelFormatter = new SimpleSunriseSunsetLabelFormatter();
+    private LabelBuffer[] mSunriseLabels = new LabelBuffer[0];
+    private LabelBuffer[] mSunsetLabels = new LabelBuffer[0];
+    private final StringBuilder mLabelBuilder = new StringBuilder(16);
+    private boolean mLabelsValid;
+    private Locale mLabelLocale;
+
+    /**
+     * 第 0 天的几何, 第 i 天平移 i * mDayWidth
+     */
+    private final SunArc mArc = new SunArc();
+    // 可见日期的轨迹与阴影, 合并成一个 Path 绘制
+    private final Path mTracks = new Path();
+    private final Path mShadows = new Path();
+    private boolean mTracksValid;
+    private boolean mShadowsValid;
+    private int mPathFirstDay = -1;
+    private int mPathLastDay = -1;
+
+    private final OverScroller mScroller;
+    private final GestureDetector mGestureDetector;
+
+    public SunriseStripView(Context context) {
+        this(context, null);
+    }
+
+    public SunriseStripView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SunriseStripView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mStyle.setSunDrawableResource(R.drawable.ic_sun);
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SunriseView, defStyleAttr, 0);
+        mStyle.readAttributes(a);
+        a.recycle();
+        a = context.obtainStyledAttributes(attrs, R.styleable.SunriseStripView, defStyleAttr, 0);
+        mDayWidth = checkDayWidth(a.getDimensionPixelSize(R.styleable.SunriseStripView_sunrise_day_width, DEFAULT_DAY_WIDTH_PX));
+        a.recycle();
+
+        mScroller = new OverScroller(context);
+        mGestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                mScroller.forceFinished(true);
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                return performClick();
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                if (getParent() != null) {
+                    getParent().requestDisallowInterceptTouchEvent(true);
+                }
+                scrollTo(getScrollX() + (int) distanceX, 0);
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+                mScroller.fling(getScrollX(), 0, (int) -velocityX, 0, 0, getMaxScrollX(), 0, 0);
+                postInvalidateOnAnimation();
+                return true;
+            }
+        });
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int paddingLeft = getPaddingLeft();
+        int paddingTop = getPaddingTop();
+        int paddingBottom = getPaddingBottom();
+        float sunRadius = mStyle.getSunRadius();
+
+        int width = resolveSize(getContentWidth(), widthMeasureSpec);
+        float trackRadius = (mDayWidth - 2 * sunRadius) / 2;
+        int expectedHeight = (int) (trackRadius + sunRadius + paddingBottom + paddingTop);
+        if (mArc.setBoard(paddingLeft + sunRadius, paddingTop + sunRadius,
+                paddingLeft + mDayWidth - sunRadius, expectedHeight - paddingBottom, sunRadius)) {
+            invalidatePaths();
+        }
+        setMeasuredDimension(width, expectedHeight);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        scrollTo(getScrollX(), 0);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int first = getFirstVisibleDay();
+        int last = getLastVisibleDay();
+        if (first > last) {
+            return;
+        }
+        SunriseRenderer renderer = getRenderer();
+        ensureLabels();
+        ensurePaths(first, last);
+
+        renderer.drawTracks(canvas, mTracks);
+        renderer.drawShadows(canvas, mShadows);
+        for (int day = first; day <= last; day++) {
+            float ratio = mRatios[day];
+            // 只有正在经过的一天画太阳
+            if (ratio > 0 && ratio < 1) {
+                renderer.drawSun(canvas, mArc.sunX(ratio, day * mDayWidth), mArc.sunY(ratio));
+            }
+        }
+        for (int day = first; day <= last; day++) {
+            if (mSunriseTimes[day] != null && mSunsetTimes[day] != null) {
+                renderer.drawLabels(canvas, mArc, day * mDayWidth, mSunriseLabels[day], mSunsetLabels[day]);
+            }
+        }
+    }
+
+    // 可见范围或比率变化时重建合并的轨迹与阴影
+    private void ensurePaths(int first, int last) {
+        if (first != mPathFirstDay || last != mPathLastDay) {
+            mPathFirstDay = first;
+            mPathLastDay = last;
+            mTracksValid = false;
+            mShadowsValid = false;
+        }
+        if (!mTracksValid) {
+            mTracks.rewind();
+            for (int day = first; day <= last; day++) {
+                mArc.appendTrack(mTracks, day * mDayWidth);
+            }
+            mTracksValid = true;
+        }
+        if (!mShadowsValid) {
+            mShadows.rewind();
+            for (int day = first; day <= last; day++) {
+                float ratio = mRatios[day];
+                if (ratio > 0) {
+                    mArc.appendShadow(mShadows, ratio > 1 ? 1 : ratio, day * mDayWidth);
+                }
+            }
+            mShadowsValid = true;
+        }
+    }
+
+    private void invalidatePaths() {
+        mTracksValid = false;
+        mShadowsValid = false;
+    }
+
+    private void ensureLabels() {
+        Locale locale = Locale.getDefault();
+        if (mLabelsValid && locale == mLabelLocale) {
+            return;
+        }
+        mLabelLocale = locale;
+        for (int day = 0; day < mSunriseTimes.length; day++) {
+            if (mSunriseTimes[day] != null && mSunsetTimes[day] != null) {
+                LabelBuffer.format(mLabelFormatter, mSunriseTimes[day], mSunsetTimes[day], locale,
+                        mLabelBuilder, mSunriseLabels[day], mSunsetLabels[day]);
+            }
+        }
+        mLabelsValid = true;
+    }
+
+    private SunriseRenderer getRenderer() {
+        if (mRenderer == null) {
+            if (mStyle.needsSunDrawable()) {
+                mStyle.resolveSunDrawable(SunDrawables.get(getContext(), mStyle.getSunDrawableResource()));
+            }
+            mRenderer = SunriseRenderer.obtain(mStyle);
+        }
+        return mRenderer;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return mGestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Override
+    public void computeScroll() {
+        if (mScroller.computeScrollOffset()) {
+            scrollTo(mScroller.getCurrX(), 0);
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    public void scrollTo(int x, int y) {
+        super.scrollTo(Math.max(0, Math.min(x, getMaxScrollX())), 0);
+    }
+
+    /**
+     * Scrolls so that {@code day} is the first visible day, or as far as possible.
+     */
+    public void scrollToDay(int day) {
+        mScroller.forceFinished(true);
+        scrollTo(day * mDayWidth, 0);
+    }
+
+    @Override
+    protected int computeHorizontalScrollRange() {
+        return getContentWidth();
+    }
+
+    private int getContentWidth() {
+        return getPaddingLeft() + getPaddingRight() + mSunriseTimes.length * mDayWidth;
+    }
+
+    private int getMaxScrollX() {
+        return Math.max(0, getContentWidth() - getWidth());
+    }
+
+    public int getFirstVisibleDay() {
+        return Math.max(0, (getScrollX() - getPaddingLeft()) / mDayWidth);
+    }
+
+    public int getLastVisibleDay() {
+        int right = getScrollX() + getWidth() - getPaddingLeft() - 1;
+        return right < 0 ? -1 : Math.min(mSunriseTimes.length - 1, right / mDayWidth);
+    }
+
+    /**
+     * Sets the days to show, {@code sunriseTimes[i]} and {@code sunsetTimes[i]} are the times of day i.
+     * All ratios are reset to 0.
+     */
+    public void setDays(Time[] sunriseTimes, Time[] sunsetTimes) {
+        if (sunriseTimes.length != sunsetTimes.length) {
+            throw new IllegalArgumentException("sunriseTimes and sunsetTimes differ in length: "
+                    + sunriseTimes.length + " != " + sunsetTimes.length);
+        }
+        int count = sunriseTimes.length;
+        mSunriseTimes = sunriseTimes.clone();
+        mSunsetTimes = sunsetTimes.clone();
+        mRatios = new float[count];
+        if (mSunriseLabels.length != count) {
+            LabelBuffer[] sunriseLabels = new LabelBuffer[count];
+            LabelBuffer[] sunsetLabels = new LabelBuffer[count];
+            for (int day = 0; day < count; day++) {
+                sunriseLabels[day] = day < mSunriseLabels.length ? mSunriseLabels[day] : new LabelBuffer();
+                sunsetLabels[day] = day < mSunsetLabels.length ? mSunsetLabels[day] : new LabelBuffer();
+            }
+            mSunriseLabels = sunriseLabels;
+            mSunsetLabels = sunsetLabels;
+        }
+        mLabelsValid = false;
+        mPathFirstDay = -1;
+        requestLayout();
+        invalidate();
+    }
+
+    public int getDayCount() {
+        return mSunriseTimes.length;
+    }
+
+    public Time getSunriseTime(int day) {
+        return mSunriseTimes[checkDay(day)];
+    }
+
+    public Time getSunsetTime(int day) {
+        return mSunsetTimes[checkDay(day)];
+    }
+
+    public void setRatio(int day, float ratio) {
+        if (mRatios[checkDay(day)] == ratio) {
+            return;
+        }
+        mRatios[day] = ratio;
+        mShadowsValid = false;
+        invalidate();
+    }
+
+    public float getRatio(int day) {
+        return mRatios[checkDay(day)];
+    }
+
+    private int checkDay(int day) {
+        if (day < 0 || day >= mRatios.length) {
+            throw new IllegalArgumentException("day out of range [0, " + mRatios.length + "): " + day);
+        }
+        return day;
+    }
+
+    /**
+     * Marks the days before {@code day} as passed, the days after it as not yet started
+     * and sets the ratio of {@code day} itself.
+     */
+    public void setCurrentDay(int day, float ratio) {
+        checkDay(day);
+        for (int i = 0; i < mRatios.length; i++) {
+            mRatios[i] = i < day ? 1 : (i > day ? 0 : ratio);
+        }
+        mShadowsValid = false;
+        invalidate();
+    }
+
+    public int getDayWidth() {
+        return mDayWidth;
+    }
+
+    /**
+     * @param dayWidthInPx width of one day, must be positive
+     */
+    public void setDayWidth(int dayWidthInPx) {
+        mDayWidth = checkDayWidth(dayWidthInPx);
+        requestLayout();
+        invalidate();
+    }
+
+    private static int checkDayWidth(int dayWidth) {
+        if (dayWidth <= 0) {
+            throw new IllegalArgumentException("day width must be positive: " + dayWidth);
+        }
+        return dayWidth;
+    }
+
+    public SunriseSunsetLabelFormatter getLabelFormatter() {
+        return mLabelFormatter;
+    }
+
+    public void setLabelFormatter(SunriseSunsetLabelFormatter labelFormatter) {
+        mLabelFormatter = labelFormatter;
+        mLabelsValid = false;
+        invalidate();
+    }
+
+    /**
+     * @return a copy of the current style
+     */
+    public SunriseStyle getStyle() {
+        return new SunriseStyle(mStyle);
+    }
+
+    /**
+     * Replaces all style attributes. A strip and the {@link SunriseView}s with an equal
+     * style share their paints and sun sprite.
+     */
+    public void setStyle(SunriseStyle style) {
+        mStyle.set(style);
+        mRenderer = null;
+        requestLayout();
+        invalidate();
+    }
+}
@@ -0,0 +1,278 @@
+package com.sunriseview;
+
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.DashPathEffect;
+import android.graphics.PathEffect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * The look of a {@link SunriseView}: colors, sizes, path effect and sun drawable.
+ * <p>
+ * Styles are compared by value, so views with equal styles share one {@link SunriseRenderer}
+ * with its paints, cached track layers and sun sprite. The path effect is compared by
+ * identity and the sun drawable by its {@link Drawable.ConstantState}; pass the same
+ * instances to views that should share. A sun drawable given as a resource id is only
+ * inflated when it is first drawn.
+ */
+public final class SunriseStyle {
+
+    public static final int DEFAULT_TRACK_COLOR = Color.WHITE;
+    public static final int DEFAULT_TRACK_WIDTH_PX = 4;
+
+    public static final int DEFAULT_SUN_COLOR = Color.YELLOW;
+    public static final int DEFAULT_SUN_RADIUS_PX = 20;
+
+    public static final int DEFAULT_SHADOW_COLOR = Color.parseColor("#32FFFFFF");
+
+    public static final int DEFAULT_LABEL_TEXT_COLOR = Color.WHITE;
+    public static final int DEFAULT_LABEL_TEXT_SIZE = 40;
+    public static final int DEFAULT_LABEL_VERTICAL_OFFSET_PX = 5;
+    public static final int DEFAULT_LABEL_HORIZONTAL_OFFSET_PX = 20;
+
+    /**
+     * The default dashed track, one instance for all styles.
+     */
+    public static final PathEffect DEFAULT_TRACK_PATH_EFFECT = new DashPathEffect(new float[]{15, 15}, 1);
+
+    private int mTrackColor = DEFAULT_TRACK_COLOR;
+    private int mTrackWidth = DEFAULT_TRACK_WIDTH_PX;
+    private PathEffect mTrackPathEffect = DEFAULT_TRACK_PATH_EFFECT;
+
+    private int mShadowColor = DEFAULT_SHADOW_COLOR;
+
+    private Drawable mSunDrawable;
+    private int mSunDrawableRes;
+    private int mSunColor = DEFAULT_SUN_COLOR;
+    private boolean mSunTinted;
+    private float mSunRadius = DEFAULT_SUN_RADIUS_PX;
+
+    private int mLabelTextSize = DEFAULT_LABEL_TEXT_SIZE;
+    private int mLabelTextColor = DEFAULT_LABEL_TEXT_COLOR;
+    private int mLabelVerticalOffset = DEFAULT_LABEL_VERTICAL_OFFSET_PX;
+    private int mLabelHorizontalOffset = DEFAULT_LABEL_HORIZONTAL_OFFSET_PX;
+
+    public SunriseStyle() {
+    }
+
+    public SunriseStyle(SunriseStyle other) {
+        set(other);
+    }
+
+    public void set(SunriseStyle other) {
+        mTrackColor = other.mTrackColor;
+        mTrackWidth = other.mTrackWidth;
+        mTrackPathEffect = other.mTrackPathEffect;
+        mShadowColor = other.mShadowColor;
+        mSunDrawable = other.mSunDrawable;
+        mSunDrawableRes = other.mSunDrawableRes;
+        mSunColor = other.mSunColor;
+        mSunTinted = other.mSunTinted;
+        mSunRadius = other.mSunRadius;
+        mLabelTextSize = other.mLabelTextSize;
+        mLabelTextColor = other.mLabelTextColor;
+        mLabelVerticalOffset = other.mLabelVerticalOffset;
+        mLabelHorizontalOffset = other.mLabelHorizontalOffset;
+    }
+
+    /**
+     * Reads the style attributes of {@code R.styleable.SunriseView}.
+     */
+    void readAttributes(TypedArray a) {
+        setTrackColor(a.getColor(R.styleable.SunriseView_sunrise_track_color, DEFAULT_TRACK_COLOR));
+        setTrackWidth(a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_track_width, DEFAULT_TRACK_WIDTH_PX));
+        int sunDrawableRes = a.getResourceId(R.styleable.SunriseView_sunrise_sun_drawable, 0);
+        if (sunDrawableRes != 0) {
+            setSunDrawableResource(sunDrawableRes);
+        } else if (a.hasValue(R.styleable.SunriseView_sunrise_sun_drawable)) {
+            // not a resource reference (e.g. a color literal), resolve it now
+            Drawable sunDrawable = a.getDrawable(R.styleable.SunriseView_sunrise_sun_drawable);
+            if (sunDrawable != null) {
+                setSunDrawable(sunDrawable);
+            }
+        }
+        setShadowColor(a.getColor(R.styleable.SunriseView_sunrise_shadow_color, DEFAULT_SHADOW_COLOR));
+
+        if (a.hasValue(R.styleable.SunriseView_sunrise_sun_color)) {
+            setSunColor(a.getColor(R.styleable.SunriseView_sunrise_sun_color, DEFAULT_SUN_COLOR));
+        }
+        setSunRadius(a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_sun_radius, DEFAULT_SUN_RADIUS_PX));
+
+        setLabelTextColor(a.getColor(R.styleable.SunriseView_sunrise_text_color, DEFAULT_LABEL_TEXT_COLOR));
+        setLabelTextSize(a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_text_size, DEFAULT_LABEL_TEXT_SIZE));
+        setLabelVerticalOffset(a.getDimensionPixelOffset(R.styleable.SunriseView_sunrise_vertical_offset, DEFAULT_LABEL_VERTICAL_OFFSET_PX));
+        setLabelHorizontalOffset(a.getDimensionPixelOffset(R.styleable.SunriseView_sunrise_horizontal_offset, DEFAULT_LABEL_HORIZONTAL_OFFSET_PX));
+    }
+
+    public int getTrackColor() {
+        return mTrackColor;
+    }
+
+    public void setTrackColor(int trackColor) {
+        mTrackColor = trackColor;
+    }
+
+    public int getTrackWidth() {
+        return mTrackWidth;
+    }
+
+    public void setTrackWidth(int trackWidthInPx) {
+        mTrackWidth = trackWidthInPx;
+    }
+
+    public PathEffect getTrackPathEffect() {
+        return mTrackPathEffect;
+    }
+
+    public void setTrackPathEffect(PathEffect trackPathEffect) {
+        mTrackPathEffect = trackPathEffect;
+    }
+
+    public int getShadowColor() {
+        return mShadowColor;
+    }
+
+    public void setShadowColor(int shadowColor) {
+        mShadowColor = shadowColor;
+    }
+
+    /**
+     * @return the sun drawable, null if none was set or it is still an unresolved resource
+     */
+    public Drawable getSunDrawable() {
+        return mSunDrawable;
+    }
+
+    public void setSunDrawable(Drawable sunDrawable) {
+        mSunDrawable = sunDrawable;
+        mSunDrawableRes = 0;
+    }
+
+    public int getSunDrawableResource() {
+        return mSunDrawableRes;
+    }
+
+    /**
+     * Sets the sun drawable by resource id, the view inflates it on first draw.
+     */
+    public void setSunDrawableResource(int resId) {
+        mSunDrawableRes = resId;
+        mSunDrawable = null;
+    }
+
+    // 资源在首次绘制时才解析, 保留资源 id
+    void resolveSunDrawable(Drawable sunDrawable) {
+        mSunDrawable = sunDrawable;
+    }
+
+    boolean needsSunDrawable() {
+        return mSunDrawable == null && mSunDrawableRes != 0;
+    }
+
+    public int getSunColor() {
+        return mSunColor;
+    }
+
+    /**
+     * Tints the sun drawable with {@code sunColor}.
+     */
+    public void setSunColor(int sunColor) {
+        mSunColor = sunColor;
+        mSunTinted = true;
+    }
+
+    /**
+     * @return true if the sun drawable is tinted with {@link #getSunColor()}
+     */
+    public boolean isSunTinted() {
+        return mSunTinted;
+    }
+
+    public float getSunRadius() {
+        return mSunRadius;
+    }
+
+    public void setSunRadius(float sunRadius) {
+        mSunRadius = sunRadius;
+    }
+
+    public int getLabelTextSize() {
+        return mLabelTextSize;
+    }
+
+    public void setLabelTextSize(int labelTextSize) {
+        mLabelTextSize = labelTextSize;
+    }
+
+    public int getLabelTextColor() {
+        return mLabelTextColor;
+    }
+
+    public void setLabelTextColor(int labelTextColor) {
+        mLabelTextColor = labelTextColor;
+    }
+
+    public int getLabelVerticalOffset() {
+        return mLabelVerticalOffset;
+    }
+
+    public void setLabelVerticalOffset(int labelVerticalOffset) {
+        mLabelVerticalOffset = labelVerticalOffset;
+    }
+
+    public int getLabelHorizontalOffset() {
+        return mLabelHorizontalOffset;
+    }
+
+    public void setLabelHorizontalOffset(int labelHorizontalOffset) {
+        mLabelHorizontalOffset = labelHorizontalOffset;
+    }
+
+    private Object sunDrawableKey() {
+        if (mSunDrawable == null) {
+            return null;
+        }
+        Drawable.ConstantState state = mSunDrawable.getConstantState();
+        return state != null ? state : mSunDrawable;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SunriseStyle)) {
+            return false;
+        }
+        SunriseStyle other = (SunriseStyle) o;
+        return mTrackColor == other.mTrackColor
+                && mTrackWidth == other.mTrackWidth
+                && mTrackPathEffect == other.mTrackPathEffect
+                && mShadowColor == other.mShadowColor
+                && mSunDrawableRes == other.mSunDrawableRes
+                && sunDrawableKey() == other.sunDrawableKey()
+                && mSunTinted == other.mSunTinted
+                && (!mSunTinted || mSunColor == other.mSunColor)
+                && Float.compare(mSunRadius, other.mSunRadius) == 0
+                && mLabelTextSize == other.mLabelTextSize
+                && mLabelTextColor == other.mLabelTextColor
+                && mLabelVerticalOffset == other.mLabelVerticalOffset
+                && mLabelHorizontalOffset == other.mLabelHorizontalOffset;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mTrackColor;
+        result = 31 * result + mTrackWidth;
+        result = 31 * result + System.identityHashCode(mTrackPathEffect);
+        result = 31 * result + mShadowColor;
+        result = 31 * result + mSunDrawableRes;
+        result = 31 * result + System.identityHashCode(sunDrawableKey());
+        result = 31 * result + (mSunTinted ? mSunColor : 0);
+        result = 31 * result + Float.floatToIntBits(mSunRadius);
+        result = 31 * result + mLabelTextSize;
+        result = 31 * result + mLabelTextColor;
+        result = 31 * result + mLabelVerticalOffset;
+        return 31 * result + mLabelHorizontalOffset;
+    }
+}
@@ -1,74 +1,143 @@
 package com.sunriseview;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.DashPathEffect;
 import android.graphics.Paint;
-import android.graphics.Path;
 import android.graphics.PathEffect;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
-import android.text.TextPaint;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
+import android.util.FloatProperty;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.animation.LinearInterpolator;
 
-import androidx.core.content.ContextCompat;
+import androidx.annotation.RequiresApi;
 
 import com.sunriseview.oters.SimpleSunriseSunsetLabelFormatter;
 import com.sunriseview.oters.SunriseSunsetLabelFormatter;
 import com.sunriseview.oters.Time;
+import com.sunriseview.solar.SolarTimes;
 
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Locale;
+import java.util.TimeZone;
 
 public class SunriseView extends View {
 
-    private static final int DEFAULT_TRACK_COLOR = Color.WHITE;
-    private static final int DEFAULT_TRACK_WIDTH_PX = 4;
-
-    private static final int DEFAULT_SUN_COLOR = Color.YELLOW;
-    private static final int DEFAULT_SUN_RADIUS_PX = 20;
-    private static final int DEFAULT_SUN_STROKE_WIDTH_PX = 4;
-
-    private static final int DEFAULT_SHADOW_COLOR = Color.parseColor("#32FFFFFF");
-
-    private static final int DEFAULT_LABEL_TEXT_COLOR = Color.WHITE;
-    private static final int DEFAULT_LABEL_TEXT_SIZE = 40;
-    private static final int DEFAULT_LABEL_VERTICAL_OFFSET_PX = 5;
-    private static final int DEFAULT_LABEL_HORIZONTAL_OFFSET_PX = 20;
+    /**
+     * Draw everything on every frame (default).
+     */
+    public static final int LAYER_CACHE_NONE = 0;
+    /**
+     * Record the dashed track into an offscreen layer and blit it on every frame.
+     */
+    public static final int LAYER_CACHE_TRACK = 1;
+    /**
+     * Like {@link #LAYER_CACHE_TRACK}, but the labels are recorded into the layer too.
+     * The labels are then composited below the shadow and the sun.
+     */
+    public static final int LAYER_CACHE_TRACK_AND_LABELS = 2;
 
     /**
      * 当前日出日落比率, mRatio < 0: 未日出, mRatio > 1 已日落
      */
     private float mRatio;
 
-    private Paint mTrackPaint;  // 绘制半圆轨迹的Paint
-    private int mTrackColor = DEFAULT_TRACK_COLOR; // 轨迹的颜色
-    private int mTrackWidth = DEFAULT_TRACK_WIDTH_PX;    // 轨迹的宽度
-    // 轨迹的PathEffect
-    private PathEffect mTrackPathEffect = new DashPathEffect(new float[]{15, 15}, 1);
-    // 轨迹圆的半径
-    private float mTrackRadius;
+    /**
+     * 样式, 轨迹, 阴影, 太阳和标签的颜色与尺寸. 样式相同的 View 共享同一个 SunriseRenderer
+     */
+    private final SunriseStyle mStyle = new SunriseStyle();
+    private SunriseRenderer mRenderer;
+
+    private static final int MINIMAL_TRACK_RADIUS_PX = 300; // 半圆轨迹最小半径
 
-    private Paint mShadowPaint; // 绘制日出日落阴影的Paint
-    private int mShadowColor = DEFAULT_SHADOW_COLOR; // 阴影颜色
+    private static final long DEFAULT_ANIMATION_DURATION = 1500L;
+    private static final TimeInterpolator DEFAULT_INTERPOLATOR = new LinearInterpolator();
 
-    private Paint mSunPaint;    // 绘制太阳的Paint
-    private int mSunColor = DEFAULT_SUN_COLOR;  // 太阳颜色
-    private float mSunRadius = DEFAULT_SUN_RADIUS_PX; // 太阳半径
-    private Paint.Style mSunPaintStyle = Paint.Style.FILL; // 太阳Paint样式,默认FILL
+    /**
+     * mRatio 的属性, 动画通过它直接调用 setRatio, 不需要反射
+     */
+    public static final FloatProperty<SunriseView> RATIO = new FloatProperty<SunriseView>("ratio") {
+        @Override
+        public void setValue(SunriseView view, float value) {
+            if (view.mMetrics != null) {
+                view.mMetrics.onAnimatorFrame();
+            }
+            view.setRatio(value);
+        }
 
-    private TextPaint mLabelPaint;   // 绘制日出日落时间的Paint
-    private int mLabelTextSize = DEFAULT_LABEL_TEXT_SIZE; // 标签文字大小
-    private int mLabelTextColor = DEFAULT_LABEL_TEXT_COLOR; // 标签颜色
-    private int mLabelVerticalOffset = DEFAULT_LABEL_VERTICAL_OFFSET_PX; // 竖直方向间距
-    private int mLabelHorizontalOffset = DEFAULT_LABEL_HORIZONTAL_OFFSET_PX; // 水平方向间距
+        @Override
+        public Float get(SunriseView view) {
+            return view.getRatio();
+        }
+    };
 
-    private static final int MINIMAL_TRACK_RADIUS_PX = 300; // 半圆轨迹最小半径
+    /**
+     * Called when a {@link #startAnimate()} run reaches its target, not when it is canceled.
+     */
+    public interface OnAnimationEndListener {
+        void onAnimationEnd(SunriseView view);
+    }
+
+    /**
+     * Receives the previewed sun position while the user drags the sun along the track, see
+     * {@link #setScrubEnabled(boolean)}.
+     */
+    public interface OnScrubListener {
+        void onScrubStart(SunriseView view);
+
+        /**
+         * Called when the sun moves. Touch input is batched per display frame, so this is
+         * also called at most about once per frame.
+         *
+         * @param time the time at {@code ratio}, to the minute; null until both times are set
+         */
+        void onScrub(SunriseView view, Time time, float ratio);
+
+        void onScrubEnd(SunriseView view);
+    }
+
+    // 日出动画, 由 View 持有并复用
+    private ObjectAnimator mAnimator;
+    private float mAnimationStart;
+    private float mAnimationTarget;
+    private long mAnimationDuration = DEFAULT_ANIMATION_DURATION;
+    private TimeInterpolator mAnimationInterpolator = DEFAULT_INTERPOLATOR;
+    private OnAnimationEndListener mOnAnimationEndListener;
+
+    // 省电模式: 太阳移动不足该距离 (像素) 时不重绘
+    private static final float SUB_PIXEL_THRESHOLD = 0.5f;
+    private boolean mPowerSaveMode;
+    // 上次绘制时的比率
+    private float mDrawnRatio;
+
+    // 拖动太阳: 系统按帧批量分发 MOVE 事件, 每个事件只应用最新的触摸位置
+    private boolean mScrubEnabled;
+    private boolean mScrubbing;
+    private OnScrubListener mOnScrubListener;
+
+    private int mLayerCacheMode = LAYER_CACHE_NONE;
+    // LAYER_CACHE_TRACK_AND_LABELS 的缓存层包含本 View 的标签, 不能共享
+    private final TrackLayerCache mLabelLayer = new TrackLayerCache();
+
+    // 实时模式: 跟随系统时间, 由共享的 SunClock 驱动
+    private static final long MIN_LIVE_TICK_MILLIS = 1000;
+    private boolean mLiveMode;
+    private boolean mLiveTicking;
+    private boolean mAttached;
+    private boolean mVisibleAggregated;
 
     /**
      * 日出时间
@@ -80,19 +149,45 @@ public class SunriseView extends View {
     private Time mSunsetTime;
 
     /**
-     * 绘图区域
+     * 绘图区域, 轨迹, 阴影路径与太阳位置, 只在尺寸或 mRatio 变化时更新
      */
-    private RectF mBoardRectF = new RectF();
-    private Drawable sunDrawable;
-    private Drawable sunDrawabled;
-
+    private final SunArc mArc = new SunArc();
+    // setRatio 时需要重绘的区域
+    private final Rect mDirtyRect = new Rect();
+    // Formatted labels, re-formatted when the times, the formatter, the text size or the locale change.
+    private final LabelBuffer mSunriseLabel = new LabelBuffer();
+    private final LabelBuffer mSunsetLabel = new LabelBuffer();
+    private final StringBuilder mLabelBuilder = new StringBuilder(16);
+    private boolean mLabelsValid;
+    private Locale mLabelLocale;
+
+    // API 29+ 硬件加速时的分层显示列表, 首次使用时创建
+    private boolean mRenderNodeEnabled;
+    private SunRenderNodes mNodes;
+
+    // 太阳以外的天体 (月亮, 标记), 与太阳共用轨迹几何
+    private final ArrayList<CelestialBody> mBodies = new ArrayList<>();
+    private final Paint mBodyPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // 可选的晨昏天空, 没有设置 SolarTimes 时不绘制
+    private final TwilightSky mSky = new TwilightSky();
+
+    // 可选的绘制统计, null 时不统计
+    private SunriseMetrics mMetrics;
+
+    // 属性变化的影响: 重绘, 重新录制缓存层, 重新测量, 重新计算实时模式
+    private static final int CHANGE_DRAW = 1;
+    private static final int CHANGE_LAYER = 1 << 1;
+    private static final int CHANGE_LAYOUT = 1 << 2;
+    private static final int CHANGE_CLOCK = 1 << 3;
+    private int mBatchEditDepth;
+    private int mPendingChanges;
 
     // Label Formatter - Default is a Simple label formatter.
     private SunriseSunsetLabelFormatter mLabelFormatter = new SimpleSunriseSunsetLabelFormatter();
 
     public SunriseView(Context context) {
         super(context);
-        init(context);
     }
 
     public SunriseView(Context context, AttributeSet attrs) {
@@ -102,25 +197,15 @@ public class SunriseView extends View {
     public SunriseView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SunriseView, defStyleAttr, 0);
-        sunDrawable = ContextCompat.getDrawable(context, R.drawable.ic_sun);
+        // 只记录资源 id, 图片在首次绘制时才解析, 相同资源的 View 共享 ConstantState
+        mStyle.setSunDrawableResource(R.drawable.ic_sun);
 
         if (a != null) {
-            mTrackColor = a.getColor(R.styleable.SunriseView_sunrise_track_color, DEFAULT_TRACK_COLOR);
-            mTrackWidth = a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_track_width, DEFAULT_TRACK_WIDTH_PX);
-            sunDrawable = a.getDrawable(R.styleable.SunriseView_sunrise_sun_drawable)==null ? ContextCompat.getDrawable(context, R.drawable.ic_sun):a.getDrawable(R.styleable.SunriseView_sunrise_sun_drawable);
-            mShadowColor = a.getColor(R.styleable.SunriseView_sunrise_shadow_color, DEFAULT_SHADOW_COLOR);
-
-            mSunColor = a.getColor(R.styleable.SunriseView_sunrise_sun_color, DEFAULT_SUN_COLOR);
-            mSunRadius = a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_sun_radius, DEFAULT_SUN_RADIUS_PX);
-
-            mLabelTextColor = a.getColor(R.styleable.SunriseView_sunrise_text_color, DEFAULT_LABEL_TEXT_COLOR);
-            mLabelTextSize = a.getDimensionPixelSize(R.styleable.SunriseView_sunrise_text_size, DEFAULT_LABEL_TEXT_SIZE);
-            mLabelVerticalOffset = a.getDimensionPixelOffset(R.styleable.SunriseView_sunrise_vertical_offset, DEFAULT_LABEL_VERTICAL_OFFSET_PX);
-            mLabelHorizontalOffset = a.getDimensionPixelOffset(R.styleable.SunriseView_sunrise_horizontal_offset, DEFAULT_LABEL_HORIZONTAL_OFFSET_PX);
+            mStyle.readAttributes(a);
+            mLayerCacheMode = a.getInt(R.styleable.SunriseView_sunrise_layer_cache, LAYER_CACHE_NONE);
+            mLiveMode = a.getBoolean(R.styleable.SunriseView_sunrise_live, false);
             a.recycle();
         }// else  sunDrawable = ContextCompat.getDrawable(context, R.drawable.ic_sun);
-
-        init(context);
     }
 
     @Override
@@ -132,152 +217,637 @@ public class SunriseView extends View {
 
         int widthSpecMode = MeasureSpec.getMode(widthMeasureSpec);
         int widthSpecSize = MeasureSpec.getSize(widthMeasureSpec);
+        float sunRadius = mStyle.getSunRadius();
 
         if (widthSpecMode == MeasureSpec.AT_MOST) {
-            widthSpecSize = paddingLeft + paddingRight + MINIMAL_TRACK_RADIUS_PX * 2 + (int) mSunRadius * 2;
+            widthSpecSize = paddingLeft + paddingRight + MINIMAL_TRACK_RADIUS_PX * 2 + (int) sunRadius * 2;
         }
 
-        mTrackRadius = 1.0f * (widthSpecSize - paddingLeft - paddingRight - 2 * mSunRadius) / 2;
-        int expectedHeight = (int) (mTrackRadius + mSunRadius + paddingBottom + paddingTop);
-        mBoardRectF.set(paddingLeft + mSunRadius, paddingTop + mSunRadius, widthSpecSize - paddingRight - mSunRadius, expectedHeight - paddingBottom);
+        float trackRadius = 1.0f * (widthSpecSize - paddingLeft - paddingRight - 2 * sunRadius) / 2;
+        int expectedHeight = (int) (trackRadius + sunRadius + paddingBottom + paddingTop);
+        if (mArc.setBoard(paddingLeft + sunRadius, paddingTop + sunRadius,
+                widthSpecSize - paddingRight - sunRadius, expectedHeight - paddingBottom, sunRadius)) {
+            onTrackChanged();
+        }
         setMeasuredDimension(widthSpecSize, expectedHeight);
     }
 
-    private void init(Context context) {
-        mTrackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mTrackPaint.setStyle(Paint.Style.STROKE);
-        prepareTrackPaint();
+    // 尺寸变化后轨迹外接矩形已更新
+    private void onTrackChanged() {
+        mLabelLayer.invalidate();
+        if (mLiveTicking) {
+            // the tick interval depends on the track length
+            SunClock.get().tick(this);
+        }
+    }
 
-        mShadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mShadowPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        prepareShadowPaint();
+    private SunriseRenderer getRenderer() {
+        if (mRenderer == null) {
+            resolveSunDrawable();
+            mRenderer = SunriseRenderer.obtain(mStyle);
+        }
+        return mRenderer;
+    }
 
-       // mSunPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        //mSunPaint.setStrokeWidth(DEFAULT_SUN_STROKE_WIDTH_PX);
-        prepareSunPaint();
+    // 首次绘制时才解析太阳图片资源
+    private void resolveSunDrawable() {
+        if (mStyle.needsSunDrawable()) {
+            mStyle.resolveSunDrawable(SunDrawables.get(getContext(), mStyle.getSunDrawableResource()));
+        }
+    }
 
-        mLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
-        prepareLabelPaint();
+    // 样式变化后重新获取共享的 renderer
+    private void onStyleChanged(int change) {
+        mRenderer = null;
+        onChanged(change);
     }
 
-    private void prepareTrackPaint() {
-        mTrackPaint.setColor(mTrackColor);
-        mTrackPaint.setStrokeWidth(mTrackWidth);
-        mTrackPaint.setPathEffect(mTrackPathEffect);
+    /**
+     * Defers the invalidate and requestLayout of the following setters, including
+     * {@link #setRatio(float)}, until the matching {@link #endBatchEdit()}, so a theme switch
+     * costs one layout (if any) and one redraw however many attributes change. Batch edits nest.
+     */
+    public void beginBatchEdit() {
+        mBatchEditDepth++;
     }
 
-    private void prepareShadowPaint() {
-        mShadowPaint.setColor(mShadowColor);
+    public void endBatchEdit() {
+        if (mBatchEditDepth == 0) {
+            throw new IllegalStateException("endBatchEdit() without beginBatchEdit()");
+        }
+        if (--mBatchEditDepth == 0) {
+            int changes = mPendingChanges;
+            mPendingChanges = 0;
+            applyChanges(changes);
+        }
     }
 
-    // 太阳的画笔
-    private void prepareSunPaint() {
-        /*mSunPaint.setColor(mSunColor);
-        mSunPaint.setStrokeWidth(DEFAULT_SUN_STROKE_WIDTH_PX);
-        mSunPaint.setStyle(mSunPaintStyle);*/
+    // 批量编辑中只记录变化, 结束时统一处理
+    private void onChanged(int change) {
+        if (mBatchEditDepth > 0) {
+            mPendingChanges |= change;
+        } else {
+            applyChanges(change);
+        }
     }
 
-    // 标签的画笔
-    private void prepareLabelPaint() {
-        mLabelPaint.setColor(mLabelTextColor);
-        mLabelPaint.setTextSize(mLabelTextSize);
+    private void applyChanges(int changes) {
+        if ((changes & CHANGE_CLOCK) != 0) {
+            // 时钟可能立即调用 setRatio, 它的重绘合并到这一次里
+            mBatchEditDepth++;
+            updateLiveTicking();
+            mBatchEditDepth--;
+            changes |= mPendingChanges;
+            mPendingChanges = 0;
+        }
+        if ((changes & ~CHANGE_CLOCK) == 0) {
+            return;
+        }
+        if ((changes & CHANGE_LAYER) != 0) {
+            invalidateLabelLayer();
+        }
+        if ((changes & CHANGE_LAYOUT) != 0) {
+            requestLayout();
+        }
+        invalidate();
     }
 
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        SunriseMetrics metrics = mMetrics;
+        if (metrics == null) {
+            drawFrame(canvas);
+            return;
+        }
+        long start = metrics.beginDraw();
+        drawFrame(canvas);
+        metrics.endDraw(this, start);
+    }
+
+    private void drawFrame(Canvas canvas) {
+        mDrawnRatio = mRatio;
+        SunriseRenderer renderer = getRenderer();
+        ensureLabels();
+        drawSky(canvas);
+
+        if (mRenderNodeEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                && canvas.isHardwareAccelerated()) {
+            drawRenderNodes(canvas, renderer);
+            return;
+        }
+        if (mLayerCacheMode == LAYER_CACHE_NONE) {
+            drawSunTrack(canvas, renderer);
+            drawShadow(canvas, renderer);
+            drawBodies(canvas);
+            drawSun(canvas, renderer);
+            drawSunriseSunsetLabel(canvas, renderer);
+            return;
+        }
+        drawTrackLayer(canvas, renderer);
+        drawShadow(canvas, renderer);
+        drawBodies(canvas);
+        drawSun(canvas, renderer);
+        if (mLayerCacheMode == LAYER_CACHE_TRACK) {
+            drawSunriseSunsetLabel(canvas, renderer);
+        }
+    }
 
-        drawSunTrack(canvas);
-        drawShadow(canvas);
-        drawSun(canvas);
-        drawSunriseSunsetLabel(canvas);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        updateLiveTicking();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mAttached = false;
+        if (mScrubbing) {
+            endScrub();
+        }
+        if (isAnimating()) {
+            // do not keep running while detached, show the final frame when attached again
+            mAnimator.cancel();
+            setRatio(mAnimationTarget);
+        }
+        updateLiveTicking();
+        mLabelLayer.release();
+        if (mNodes != null) {
+            mNodes.release();
+        }
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        mVisibleAggregated = isVisible;
+        updateLiveTicking();
+    }
+
+    // 绘制分层的显示列表: 静态的轨迹和标签, 阴影, 天体, 只改平移的太阳
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private void drawRenderNodes(Canvas canvas, SunriseRenderer renderer) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (mNodes == null) {
+            mNodes = new SunRenderNodes();
+        }
+        long start = beginPhase(SunriseMetrics.PHASE_TRACK_LAYER);
+        RectF track = mArc.getTrack();
+        boolean hit = !mNodes.isStaticDirty(renderer, width, height, track);
+        if (!hit) {
+            Canvas nodeCanvas = mNodes.beginStaticRecording(renderer, width, height, track);
+            drawSunTrack(nodeCanvas, renderer);
+            drawSunriseSunsetLabel(nodeCanvas, renderer);
+            mNodes.endStaticRecording();
+        }
+        mNodes.drawStatic(canvas);
+        if (mMetrics != null) {
+            mMetrics.onLayer(hit);
+        }
+        endPhase(SunriseMetrics.PHASE_TRACK_LAYER, start);
+
+        start = beginPhase(SunriseMetrics.PHASE_SHADOW);
+        mNodes.drawShadow(canvas, renderer, mArc, width, height);
+        endPhase(SunriseMetrics.PHASE_SHADOW, start);
+
+        drawBodies(canvas);
+
+        start = beginPhase(SunriseMetrics.PHASE_SUN);
+        mNodes.drawSun(canvas, renderer, mArc);
+        endPhase(SunriseMetrics.PHASE_SUN, start);
+    }
+
+    // 绘制缓存的轨迹层, 只在轨迹或标签变化后重新录制
+    private void drawTrackLayer(Canvas canvas, SunriseRenderer renderer) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        long start = beginPhase(SunriseMetrics.PHASE_TRACK_LAYER);
+        boolean hit;
+        if (mLayerCacheMode == LAYER_CACHE_TRACK) {
+            hit = renderer.drawTrackLayer(canvas, mArc, width, height);
+        } else {
+            RectF track = mArc.getTrack();
+            hit = !mLabelLayer.isDirty(width, height, track);
+            if (!hit) {
+                Canvas layerCanvas = mLabelLayer.beginRecording(width, height, track);
+                drawSunTrack(layerCanvas, renderer);
+                drawSunriseSunsetLabel(layerCanvas, renderer);
+                mLabelLayer.endRecording();
+            }
+            mLabelLayer.draw(canvas);
+        }
+        if (mMetrics != null) {
+            mMetrics.onLayer(hit);
+        }
+        endPhase(SunriseMetrics.PHASE_TRACK_LAYER, start);
+    }
+
+    // 绘制晨昏天空, 在轨迹和阴影之下
+    private void drawSky(Canvas canvas) {
+        if (!mSky.isEnabled()) {
+            return;
+        }
+        long start = beginPhase(SunriseMetrics.PHASE_SKY);
+        mSky.draw(canvas, mArc.getBoard(), mArc.getTrackRadius(), getWidth());
+        endPhase(SunriseMetrics.PHASE_SKY, start);
     }
 
     // 绘制太阳轨道（半圆）
-    private void drawSunTrack(Canvas canvas) {
-        prepareTrackPaint();
-        canvas.save();
-        RectF rectF = new RectF(mBoardRectF.left, mBoardRectF.top, mBoardRectF.right, mBoardRectF.bottom + mBoardRectF.height());
-        canvas.drawArc(rectF, 180, 180, false, mTrackPaint);
-        canvas.restore();
+    private void drawSunTrack(Canvas canvas, SunriseRenderer renderer) {
+        long start = beginPhase(SunriseMetrics.PHASE_TRACK);
+        renderer.drawTrack(canvas, mArc);
+        endPhase(SunriseMetrics.PHASE_TRACK, start);
     }
 
     // 绘制日出日落阴影部分
-    private void drawShadow(Canvas canvas) {
-        prepareShadowPaint();
+    private void drawShadow(Canvas canvas, SunriseRenderer renderer) {
+        long start = beginPhase(SunriseMetrics.PHASE_SHADOW);
+        renderer.drawShadow(canvas, mArc);
+        endPhase(SunriseMetrics.PHASE_SHADOW, start);
+    }
 
-        canvas.save();
-        Path path = new Path();
-        float endY = mBoardRectF.bottom;
-        RectF rectF = new RectF(mBoardRectF.left, mBoardRectF.top, mBoardRectF.right, mBoardRectF.bottom + mBoardRectF.height());
-        float curPointX = mBoardRectF.left + mTrackRadius - mTrackRadius * (float) Math.cos(Math.PI * mRatio);
+    // 绘制月亮和标记, 每个天体只是一次图片绘制
+    private void drawBodies(Canvas canvas) {
+        int count = mBodies.size();
+        if (count == 0) {
+            return;
+        }
+        long start = beginPhase(SunriseMetrics.PHASE_BODIES);
+        int time = getTimeOfDay();
+        for (int i = 0; i < count; i++) {
+            CelestialBody body = mBodies.get(i);
+            if (time < 0 && !body.isMarker()) {
+                continue;
+            }
+            float ratio = body.ratioAt(time);
+            Bitmap sprite = body.getSprite();
+            if (ratio < 0 || ratio > 1 || sprite == null) {
+                continue;
+            }
+            canvas.drawBitmap(sprite, mArc.sunX(ratio, 0) - sprite.getWidth() / 2f,
+                    mArc.sunY(ratio) - sprite.getHeight() / 2f, mBodyPaint);
+        }
+        endPhase(SunriseMetrics.PHASE_BODIES, start);
+    }
 
-        path.moveTo(0, endY);
-        path.arcTo(rectF, 180, 180 * mRatio);
-        path.lineTo(curPointX, endY);
-        path.close();
-        canvas.drawPath(path, mShadowPaint);
-        canvas.restore();
+    // 太阳位置对应的时间 (午夜后的秒数), 日出日落时间未设置时为 -1
+    private int getTimeOfDay() {
+        if (mSunriseTime == null || mSunsetTime == null) {
+            return -1;
+        }
+        int time = SunMath.timeAt(mRatio, mSunriseTime.getSecondOfDay(), mSunsetTime.getSecondOfDay());
+        return Math.max(0, Math.min(Time.SECONDS_PER_DAY - 1, time));
     }
 
     // 绘制太阳
-    private void drawSun(Canvas canvas) {
+    private void drawSun(Canvas canvas, SunriseRenderer renderer) {
+        long start = beginPhase(SunriseMetrics.PHASE_SUN);
+        // Draw the rasterized Sun Drawable instead of circle, only its position changes per frame
+        renderer.drawSun(canvas, mArc);
+        endPhase(SunriseMetrics.PHASE_SUN, start);
+    }
 
+    private long beginPhase(int phase) {
+        return mMetrics == null ? 0 : mMetrics.beginPhase(phase);
+    }
 
+    private void endPhase(int phase, long start) {
+        if (mMetrics != null) {
+            mMetrics.endPhase(phase, start);
+        }
+    }
 
-        prepareSunPaint();
-        canvas.save();
+    // for tests
+    Rect getSunBounds() {
+        return mArc.getSunBounds();
+    }
 
+    // 绘制日出日落标签
+    private void drawSunriseSunsetLabel(Canvas canvas, SunriseRenderer renderer) {
+        if (mSunriseTime == null || mSunsetTime == null) {
+            return;
+        }
+        long start = beginPhase(SunriseMetrics.PHASE_LABELS);
+        renderer.drawLabels(canvas, mArc, mSunriseLabel, mSunsetLabel);
+        endPhase(SunriseMetrics.PHASE_LABELS, start);
+    }
 
-        float curPointX = mBoardRectF.left + mTrackRadius - mTrackRadius * (float) Math.cos(Math.PI * mRatio);
-        float curPointY = mBoardRectF.bottom - mTrackRadius * (float) Math.sin(Math.PI * mRatio);
-        //canvas.drawCircle(curPointX, curPointY, mSunRadius, mSunPaint);
+    // 格式化并测量标签, 只在时间, 格式化器, 字体大小或 Locale 变化后执行
+    private void ensureLabels() {
+        if (mSunriseTime == null || mSunsetTime == null) {
+            return;
+        }
+        Locale locale = Locale.getDefault();
+        boolean hit = mLabelsValid && locale == mLabelLocale;
+        if (mMetrics != null) {
+            mMetrics.onLabels(hit);
+        }
+        if (hit) {
+            return;
+        }
+        mLabelLocale = locale;
+        LabelBuffer.format(mLabelFormatter, mSunriseTime, mSunsetTime, locale, mLabelBuilder,
+                mSunriseLabel, mSunsetLabel);
+        mLabelsValid = true;
+        invalidateLabelLayer();
+    }
 
-        // Draw Sun Drawable instead of circle
-        if (sunDrawable != null) {
-            int sunSize = 80; // px size
-            sunDrawable.setBounds((int) (curPointX - sunSize / 2), (int) (curPointY - sunSize / 2),
-                    (int) (curPointX + sunSize / 2), (int) (curPointY + sunSize / 2));
-            sunDrawable.draw(canvas);
+    private void invalidateLabels() {
+        mLabelsValid = false;
+        onChanged(CHANGE_LAYER);
+    }
+
+    public void setRatio(float ratio) {
+        // 实时模式下天空跟随真实时间 (拖动预览时除外), 见 onClockTick
+        boolean skyChanged = (!mLiveTicking || mScrubbing) && mSky.setRatio(ratio);
+        applyRatio(ratio, skyChanged);
+    }
+
+    /**
+     * Moves the sun and invalidates once for the sun and the sky.
+     *
+     * @param skyChanged the twilight sky was already updated and has to be redrawn
+     */
+    private void applyRatio(float ratio, boolean skyChanged) {
+        // 与上次绘制的位置比较, 跳过的更新不会累积误差
+        float oldRatio = mDrawnRatio;
+        float oldSunX = mArc.sunX(oldRatio, 0);
+        float oldSunY = mArc.sunY(oldRatio);
+        mArc.sunBounds(oldSunX, oldSunY, mDirtyRect);
+
+        boolean sunMoved = ratio != mRatio;
+        mRatio = ratio;
+        mArc.setRatio(ratio);
+        if (mBatchEditDepth > 0) {
+            onRatioUpdate(true);
+            onChanged(CHANGE_DRAW);
+            return;
+        }
+        // 天空的变化同样留到太阳移动足够远时一起绘制; 太阳不动时 (夜间) 天空照常重绘
+        if (mPowerSaveMode && (sunMoved || !skyChanged) && isSubPixelMove(oldSunX, oldSunY)) {
+            onRatioUpdate(false);
+            return;
         }
+        onRatioUpdate(true);
+        invalidateRatioChange(oldRatio, oldSunX, oldSunY, skyChanged);
+    }
 
+    private boolean isSubPixelMove(float oldSunX, float oldSunY) {
+        float dx = mArc.getSunX() - oldSunX;
+        float dy = mArc.getSunY() - oldSunY;
+        return dx * dx + dy * dy < SUB_PIXEL_THRESHOLD * SUB_PIXEL_THRESHOLD;
+    }
 
-        canvas.restore();
+    private void onRatioUpdate(boolean rendered) {
+        if (mMetrics != null) {
+            mMetrics.onRatioUpdate(rendered);
+        }
     }
 
-    // 绘制日出日落标签
-    private void drawSunriseSunsetLabel(Canvas canvas) {
-        if (mSunriseTime == null || mSunsetTime == null) {
+    /**
+     * For always-on screens where the sun is the only thing moving: {@link #setRatio(float)}
+     * skips the redraw while the sun moved less than half a pixel since the last frame, and on
+     * API 35+ the view asks for a low refresh rate except during the intro animation and
+     * dragging. Skipped and rendered updates are counted by {@link SunriseMetrics}.
+     */
+    public void setPowerSaveMode(boolean powerSaveMode) {
+        mPowerSaveMode = powerSaveMode;
+        updateFrameRate(isAnimating() || mScrubbing);
+    }
+
+    public boolean isPowerSaveMode() {
+        return mPowerSaveMode;
+    }
+
+    // 动画或拖动时使用默认刷新率, 其余时间在省电模式下请求低刷新率
+    private void updateFrameRate(boolean moving) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) {
+            setRequestedFrameRate(mPowerSaveMode && !moving
+                    ? REQUESTED_FRAME_RATE_CATEGORY_LOW : REQUESTED_FRAME_RATE_CATEGORY_DEFAULT);
+        }
+    }
+
+    /**
+     * 只重绘新旧太阳所占区域和阴影变化的部分.
+     * The shadow only changes under the arc between the old and the new sun x, down to the
+     * baseline. The twilight sky, when it changed, covers the full width above the horizon.
+     * Note that hardware accelerated windows compute their own damage area and ignore the
+     * rectangle, software layers and software rendering honor it.
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidateRatioChange(float oldRatio, float oldSunX, float oldSunY, boolean skyChanged) {
+        // 月亮等天体也随时间移动, 位置可能在轨迹任意处
+        if (getWidth() == 0 || hasMovingBodies() || oldRatio < 0 || oldRatio > 1 || mRatio < 0 || mRatio > 1) {
+            invalidate();
             return;
         }
-        prepareLabelPaint();
+        float minRatio = Math.min(oldRatio, mRatio);
+        float maxRatio = Math.max(oldRatio, mRatio);
+        float sunX = mArc.getSunX();
+        float sunY = mArc.getSunY();
+        RectF board = mArc.getBoard();
+        // 跨过正午时阴影的最高点是轨迹顶端
+        float top = minRatio <= 0.5f && maxRatio >= 0.5f ? board.top : Math.min(oldSunY, sunY);
+        int pad = 1 + mStyle.getTrackWidth();
+        mDirtyRect.union(mArc.getSunBounds());
+        mDirtyRect.union((int) Math.floor(Math.min(oldSunX, sunX)) - pad, (int) Math.floor(top) - pad,
+                (int) Math.ceil(Math.max(oldSunX, sunX)) + pad, (int) Math.ceil(board.bottom) + pad);
+        if (skyChanged) {
+            mDirtyRect.union(0, 0, getWidth(), (int) Math.ceil(board.bottom));
+        }
+        invalidate(mDirtyRect);
+    }
 
-        canvas.save();
-        // 绘制日出时间
-        String sunriseStr = mLabelFormatter.formatSunriseLabel(mSunriseTime);
+    public float getRatio() {
+        return mRatio;
+    }
 
-        mLabelPaint.setTextAlign(Paint.Align.LEFT);
-        Paint.FontMetricsInt metricsInt = mLabelPaint.getFontMetricsInt();
-        float baseLineX = mBoardRectF.left + mSunRadius + mLabelHorizontalOffset;
-        float baseLineY = mBoardRectF.bottom - metricsInt.bottom - mLabelVerticalOffset;
-        canvas.drawText(sunriseStr, baseLineX, baseLineY, mLabelPaint);
+    /**
+     * Adds a body drawn on the track below the sun, e.g. the moon. Moving bodies follow the
+     * time of the sun position, so they need the sunrise and sunset times.
+     */
+    public void addCelestialBody(CelestialBody body) {
+        mBodies.add(body);
+        onChanged(CHANGE_DRAW);
+    }
 
-        // 绘制日落时间
-        mLabelPaint.setTextAlign(Paint.Align.RIGHT);
-        String sunsetStr = mLabelFormatter.formatSunsetLabel(mSunsetTime);
-        baseLineX = mBoardRectF.right - mSunRadius - mLabelHorizontalOffset;
-        canvas.drawText(sunsetStr, baseLineX, baseLineY, mLabelPaint);
-        canvas.restore();
+    public void removeCelestialBody(CelestialBody body) {
+        if (mBodies.remove(body)) {
+            onChanged(CHANGE_DRAW);
+        }
     }
 
-    public void setRatio(float ratio) {
-        mRatio = ratio;
-        invalidate();
+    public void clearCelestialBodies() {
+        if (!mBodies.isEmpty()) {
+            mBodies.clear();
+            onChanged(CHANGE_DRAW);
+        }
+    }
+
+    private boolean hasMovingBodies() {
+        for (int i = 0; i < mBodies.size(); i++) {
+            if (!mBodies.get(i).isMarker()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lets the user drag the sun along the track. While dragging, the animation is canceled
+     * and live mode pauses; live mode returns to the clock on release.
+     */
+    public void setScrubEnabled(boolean scrubEnabled) {
+        mScrubEnabled = scrubEnabled;
+        if (!scrubEnabled && mScrubbing) {
+            endScrub();
+        }
+    }
+
+    public boolean isScrubEnabled() {
+        return mScrubEnabled;
+    }
+
+    public boolean isScrubbing() {
+        return mScrubbing;
+    }
+
+    public void setOnScrubListener(OnScrubListener listener) {
+        mOnScrubListener = listener;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!mScrubEnabled) {
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (!isOnSun(event.getX(), event.getY())) {
+                    return super.onTouchEvent(event);
+                }
+                startScrub();
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!mScrubbing) {
+                    return super.onTouchEvent(event);
+                }
+                // 批量事件中的历史采样 (getHistoricalX/Y) 比 getX/getY 旧, 只有最新的位置
+                // 需要投影到轨迹上, 这一帧里不会画出中间位置
+                applyScrub(event.getX(), event.getY());
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (!mScrubbing) {
+                    return super.onTouchEvent(event);
+                }
+                applyScrub(event.getX(), event.getY());
+                endScrub();
+                performClick();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                if (mScrubbing) {
+                    endScrub();
+                    return true;
+                }
+                return super.onTouchEvent(event);
+            default:
+                return mScrubbing || super.onTouchEvent(event);
+        }
+    }
+
+    // 拖动结束时也算一次点击, 无障碍服务和点击监听器能收到
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    // 触摸点是否落在太阳上, 按 touch slop 放宽
+    private boolean isOnSun(float x, float y) {
+        if (mArc.getTrackRadius() <= 0) {
+            return false;
+        }
+        float reach = mStyle.getSunRadius() + ViewConfiguration.get(getContext()).getScaledTouchSlop();
+        float dx = x - mArc.getSunX();
+        float dy = y - mArc.getSunY();
+        return dx * dx + dy * dy <= reach * reach;
+    }
+
+    private void startScrub() {
+        mScrubbing = true;
+        cancelAnimate();
+        updateFrameRate(true);
+        if (getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        if (mOnScrubListener != null) {
+            mOnScrubListener.onScrubStart(this);
+        }
+    }
+
+    private void endScrub() {
+        mScrubbing = false;
+        updateFrameRate(false);
+        if (mOnScrubListener != null) {
+            mOnScrubListener.onScrubEnd(this);
+        }
+        if (mLiveTicking) {
+            SunClock.get().tick(this);
+        }
+    }
+
+    private void applyScrub(float x, float y) {
+        float ratio = mArc.ratioAt(x, y);
+        if (ratio == mRatio) {
+            return;
+        }
+        setRatio(ratio);
+        if (mOnScrubListener != null) {
+            mOnScrubListener.onScrub(this, getTimeAt(ratio), ratio);
+        }
+    }
+
+    // ratio 处的时间, 取整到分钟 (共享实例)
+    private Time getTimeAt(float ratio) {
+        if (mSunriseTime == null || mSunsetTime == null) {
+            return null;
+        }
+        int minute = SunMath.timeAt(ratio, mSunriseTime.getMinuteOfDay(), mSunsetTime.getMinuteOfDay());
+        return Time.ofMinuteOfDay(Math.max(0, Math.min(Time.MINUTES_PER_DAY - 1, minute)));
     }
 
     public void setSunriseTime(Time sunriseTime) {
+        if (sunriseTime != null && sunriseTime.equals(mSunriseTime)) {
+            return;
+        }
         mSunriseTime = sunriseTime;
+        mLabelsValid = false;
+        onChanged(CHANGE_LAYER | CHANGE_CLOCK);
+    }
+
+    /**
+     * Same as {@code setSunriseTime(Time.ofMinuteOfDay(minuteOfDay))}, without allocating.
+     */
+    public void setSunriseMinutes(int minuteOfDay) {
+        setSunriseTime(Time.ofMinuteOfDay(minuteOfDay));
+    }
+
+    /**
+     * Sets both times in minutes after midnight, e.g. straight from a data source or
+     * {@link com.sunriseview.solar.SolarTable#getRiseSetMinutes(int, int)}.
+     */
+    public void setSunriseSunsetMinutes(int sunriseMinuteOfDay, int sunsetMinuteOfDay) {
+        setSunriseTime(Time.ofMinuteOfDay(sunriseMinuteOfDay));
+        setSunsetTime(Time.ofMinuteOfDay(sunsetMinuteOfDay));
     }
 
     public Time getSunriseTime() {
@@ -285,7 +855,19 @@ public class SunriseView extends View {
     }
 
     public void setSunsetTime(Time sunsetTime) {
+        if (sunsetTime != null && sunsetTime.equals(mSunsetTime)) {
+            return;
+        }
         mSunsetTime = sunsetTime;
+        mLabelsValid = false;
+        onChanged(CHANGE_LAYER | CHANGE_CLOCK);
+    }
+
+    /**
+     * Same as {@code setSunsetTime(Time.ofMinuteOfDay(minuteOfDay))}, without allocating.
+     */
+    public void setSunsetMinutes(int minuteOfDay) {
+        setSunsetTime(Time.ofMinuteOfDay(minuteOfDay));
     }
 
     public Time getSunsetTime() {
@@ -293,7 +875,7 @@ public class SunriseView extends View {
     }
 
     public float getSunRadius() {
-        return mSunRadius;
+        return mStyle.getSunRadius();
     }
 
     public SunriseSunsetLabelFormatter getLabelFormatter() {
@@ -302,68 +884,465 @@ public class SunriseView extends View {
 
     public void setLabelFormatter(SunriseSunsetLabelFormatter labelFormatter) {
         mLabelFormatter = labelFormatter;
+        invalidateLabels();
+    }
+
+    public Drawable getSunDrawable() {
+        resolveSunDrawable();
+        return mStyle.getSunDrawable();
+    }
+
+    public void setSunDrawable(Drawable drawable) {
+        mStyle.setSunDrawable(drawable);
+        onStyleChanged(CHANGE_DRAW);
+    }
+
+    /**
+     * Sets the sun drawable by resource id. It is inflated on first draw and shared with
+     * other views using the same resource.
+     */
+    public void setSunDrawableResource(int resId) {
+        mStyle.setSunDrawableResource(resId);
+        onStyleChanged(CHANGE_DRAW);
+    }
+
+    /**
+     * @return a copy of the current style
+     */
+    public SunriseStyle getStyle() {
+        return new SunriseStyle(mStyle);
+    }
+
+    /**
+     * Replaces all style attributes at once. Views with equal styles share their paints,
+     * track layers and sun sprite.
+     */
+    public void setStyle(SunriseStyle style) {
+        boolean resized = mStyle.getSunRadius() != style.getSunRadius();
+        mStyle.set(style);
+        mLabelsValid = false;
+        onStyleChanged(resized ? CHANGE_LAYOUT | CHANGE_LAYER : CHANGE_LAYER);
     }
 
     public void setTrackColor(int trackColor) {
-        mTrackColor = trackColor;
+        mStyle.setTrackColor(trackColor);
+        onStyleChanged(CHANGE_LAYER);
     }
 
     public void setTrackWidth(int trackWidthInPx) {
-        mTrackWidth = trackWidthInPx;
+        mStyle.setTrackWidth(trackWidthInPx);
+        onStyleChanged(CHANGE_LAYER);
     }
 
     public void setTrackPathEffect(PathEffect trackPathEffect) {
-        mTrackPathEffect = trackPathEffect;
+        mStyle.setTrackPathEffect(trackPathEffect);
+        onStyleChanged(CHANGE_LAYER);
     }
 
+    /**
+     * Tints the sun drawable with {@code sunColor}.
+     */
     public void setSunColor(int sunColor) {
-        mSunColor = sunColor;
+        mStyle.setSunColor(sunColor);
+        onStyleChanged(CHANGE_DRAW);
     }
 
     public void setSunRadius(float sunRadius) {
-        mSunRadius = sunRadius;
+        if (mStyle.getSunRadius() == sunRadius) {
+            return;
+        }
+        mStyle.setSunRadius(sunRadius);
+        // the board and the view height depend on the sun radius
+        onStyleChanged(CHANGE_LAYOUT | CHANGE_LAYER);
     }
 
+    /**
+     * Has no effect, the sun is drawn from its drawable, see {@link #setSunDrawable(Drawable)}
+     * and {@link #setSunColor(int)}.
+     *
+     * @deprecated the sun paint style was never used and is ignored
+     */
+    @Deprecated
     public void setSunPaintStyle(Paint.Style sunPaintStyle) {
-        mSunPaintStyle = sunPaintStyle;
     }
 
     public void setShadowColor(int shadowColor) {
-        mShadowColor = shadowColor;
+        mStyle.setShadowColor(shadowColor);
+        onStyleChanged(CHANGE_DRAW);
     }
 
     public void setLabelTextSize(int labelTextSize) {
-        mLabelTextSize = labelTextSize;
+        mStyle.setLabelTextSize(labelTextSize);
+        onStyleChanged(CHANGE_LAYER);
     }
 
     public void setLabelTextColor(int labelTextColor) {
-        mLabelTextColor = labelTextColor;
+        mStyle.setLabelTextColor(labelTextColor);
+        onStyleChanged(CHANGE_LAYER);
     }
 
     public void setLabelVerticalOffset(int labelVerticalOffset) {
-        mLabelVerticalOffset = labelVerticalOffset;
+        mStyle.setLabelVerticalOffset(labelVerticalOffset);
+        onStyleChanged(CHANGE_LAYER);
     }
 
     public void setLabelHorizontalOffset(int labelHorizontalOffset) {
-        mLabelHorizontalOffset = labelHorizontalOffset;
+        mStyle.setLabelHorizontalOffset(labelHorizontalOffset);
+        onStyleChanged(CHANGE_LAYER);
+    }
+
+    /**
+     * Shades the sky above the horizon by civil, nautical and astronomical twilight, null
+     * disables it. Without live mode the time of day is derived from the ratio (the sun
+     * position is extrapolated below the horizon for ratios outside [0, 1]).
+     */
+    public void setTwilight(SolarTimes times) {
+        mSky.setTimes(times);
+        if (!mLiveTicking) {
+            mSky.setRatio(mRatio);
+        }
+        // 实时模式下由下一次时钟更新天空
+        onChanged(CHANGE_DRAW | CHANGE_CLOCK);
+    }
+
+    /**
+     * Colors of the twilight bands from the horizon up, see {@link #setTwilight(SolarTimes)}.
+     */
+    public void setTwilightColors(int civil, int nautical, int astronomical, int night) {
+        mSky.setColors(civil, nautical, astronomical, night);
+        onChanged(CHANGE_DRAW);
+    }
+
+    /**
+     * Selects how the static track is drawn, one of {@link #LAYER_CACHE_NONE},
+     * {@link #LAYER_CACHE_TRACK} or {@link #LAYER_CACHE_TRACK_AND_LABELS}.
+     * A cached layer costs one ARGB bitmap of the view size while attached.
+     */
+    public void setLayerCacheMode(int layerCacheMode) {
+        if (mLayerCacheMode == layerCacheMode) {
+            return;
+        }
+        mLayerCacheMode = layerCacheMode;
+        if (layerCacheMode != LAYER_CACHE_TRACK_AND_LABELS) {
+            mLabelLayer.release();
+        }
+        onChanged(CHANGE_DRAW);
+    }
+
+    public int getLayerCacheMode() {
+        return mLayerCacheMode;
+    }
+
+    /**
+     * On API 29+ hardware accelerated canvases, keeps the track and labels, the shadow and the
+     * sun in separate {@link android.graphics.RenderNode}s: a ratio change re-records only the
+     * shadow and moves the sun node. Like {@link #LAYER_CACHE_TRACK_AND_LABELS}, the labels
+     * are then composited below the shadow and the sun. The layer cache mode is ignored while
+     * the nodes are in use; older releases and software canvases draw as before.
+     */
+    public void setRenderNodeEnabled(boolean renderNodeEnabled) {
+        if (mRenderNodeEnabled == renderNodeEnabled) {
+            return;
+        }
+        mRenderNodeEnabled = renderNodeEnabled;
+        if (!renderNodeEnabled && mNodes != null) {
+            mNodes.release();
+        }
+        onChanged(CHANGE_DRAW);
+    }
+
+    public boolean isRenderNodeEnabled() {
+        return mRenderNodeEnabled;
+    }
+
+    /**
+     * Enables draw instrumentation, null disables it.
+     */
+    public void setMetrics(SunriseMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public SunriseMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    @Override
+    public void invalidate() {
+        if (mMetrics != null) {
+            mMetrics.onInvalidate();
+        }
+        super.invalidate();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void invalidate(Rect dirty) {
+        if (mMetrics != null) {
+            mMetrics.onInvalidate();
+        }
+        super.invalidate(dirty);
+    }
+
+    // 标签被录制在缓存层中时, 标签变化需要重新录制
+    private void invalidateLabelLayer() {
+        if (mLayerCacheMode == LAYER_CACHE_TRACK_AND_LABELS) {
+            mLabelLayer.invalidate();
+        }
+        if (mNodes != null) {
+            mNodes.invalidate();
+        }
+    }
+
+    /**
+     * In live mode the sun follows the wall clock. All live views of the process share one
+     * ticker, which only runs while at least one of them is attached and visible, and wakes
+     * up when the sun has moved about a pixel along the track.
+     */
+    public void setLiveMode(boolean liveMode) {
+        mLiveMode = liveMode;
+        onChanged(CHANGE_CLOCK);
+    }
+
+    public boolean isLiveMode() {
+        return mLiveMode;
+    }
+
+    private void updateLiveTicking() {
+        boolean ticking = mLiveMode && mAttached && mVisibleAggregated
+                && mSunriseTime != null && mSunsetTime != null;
+        if (ticking == mLiveTicking) {
+            if (ticking) {
+                SunClock.get().tick(this);
+            }
+            return;
+        }
+        mLiveTicking = ticking;
+        if (ticking) {
+            SunClock.get().register(this);
+        } else {
+            SunClock.get().unregister(this);
+        }
+    }
+
+    /**
+     * Called by {@link SunClock} with the local time of day.
+     *
+     * @return milliseconds until the sun moves again
+     */
+    long onClockTick(int millisOfDay) {
+        if (mScrubbing) {
+            // the user holds the sun, catch up on release
+            return MIN_LIVE_TICK_MILLIS;
+        }
+        if (isAnimating()) {
+            // let the intro animation finish, then follow the clock
+            return mAnimator.getDuration() - mAnimator.getCurrentPlayTime();
+        }
+        int sunrise = mSunriseTime.getSecondOfDay() * 1000;
+        int sunset = mSunsetTime.getSecondOfDay() * 1000;
+        if (sunset <= sunrise) {
+            return SunClock.MILLIS_PER_DAY - millisOfDay;
+        }
+        float ratio = SunMath.ratio(millisOfDay, sunrise, sunset);
+        boolean skyChanged = mSky.setTime(millisOfDay / 1000);
+        if (ratio != mRatio || skyChanged) {
+            // 太阳与天空一起重绘, 每次 tick 最多一次 invalidate
+            applyRatio(ratio, skyChanged);
+        }
+
+        if (millisOfDay < sunrise || millisOfDay >= sunset) {
+            if (mSky.isEnabled()) {
+                // the twilight bands move once a minute
+                return 60 * 1000 - millisOfDay % (60 * 1000);
+            }
+            // back to the sunrise position at midnight
+            return millisOfDay < sunrise ? sunrise - millisOfDay : SunClock.MILLIS_PER_DAY - millisOfDay;
+        }
+        float trackRadius = mArc.getTrackRadius();
+        if (trackRadius <= 0) {
+            // not measured yet, check again at the next minute
+            return 60 * 1000 - millisOfDay % (60 * 1000);
+        }
+        // wake when the sun reaches the next pixel, not a fixed interval after this tick
+        return Math.max(MIN_LIVE_TICK_MILLIS,
+                SunMath.millisToNextPixel(millisOfDay, sunrise, sunset, trackRadius));
     }
 
     public void startAnimate() {
         if (mSunriseTime == null || mSunsetTime == null) {
             throw new RuntimeException("You need to set both sunrise and sunset time before start animation");
         }
-        int sunrise = mSunriseTime.transformToMinutes();
-        int sunset = mSunsetTime.transformToMinutes();
-        Calendar calendar = Calendar.getInstance(Locale.getDefault());
-        int currentHour = calendar.get(Calendar.HOUR_OF_DAY);
-        int currentMinute = calendar.get(Calendar.MINUTE);
-        int currentTime = currentHour * Time.MINUTES_PER_HOUR + currentMinute;
-        float ratio = 1.0f * (currentTime - sunrise) / (sunset - sunrise);
-        ratio = ratio <= 0 ? 0 : (ratio > 1.0f ? 1 : ratio);
-        ObjectAnimator animator = ObjectAnimator.ofFloat(this, "ratio", 0f, ratio);
-        animator.setDuration(1500L);
-        animator.setInterpolator(new LinearInterpolator());
-        animator.start();
+        int sunrise = mSunriseTime.getSecondOfDay();
+        int sunset = mSunsetTime.getSecondOfDay();
+        int currentTime = Time.ofEpochMillis(System.currentTimeMillis(), TimeZone.getDefault()).getSecondOfDay();
+        animateRatio(SunMath.ratio(currentTime, sunrise, sunset));
+    }
+
+    /**
+     * Animates the sun from its current position to {@code ratio}, replacing any running animation.
+     */
+    public void animateRatio(float ratio) {
+        startAnimator(mRatio, ratio, 0);
+    }
+
+    private void startAnimator(float from, float to, long playTime) {
+        if (mAnimator == null) {
+            mAnimator = ObjectAnimator.ofFloat(this, RATIO, to);
+            mAnimator.addListener(new AnimatorListenerAdapter() {
+                private boolean mCanceled;
+
+                @Override
+                public void onAnimationStart(Animator animation) {
+                    mCanceled = false;
+                }
+
+                @Override
+                public void onAnimationCancel(Animator animation) {
+                    mCanceled = true;
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    updateFrameRate(mScrubbing);
+                    if (!mCanceled && mOnAnimationEndListener != null) {
+                        mOnAnimationEndListener.onAnimationEnd(SunriseView.this);
+                    }
+                }
+            });
+        }
+        mAnimator.cancel();
+        mAnimationStart = from;
+        mAnimationTarget = to;
+        mAnimator.setFloatValues(from, to);
+        mAnimator.setDuration(mAnimationDuration);
+        mAnimator.setInterpolator(mAnimationInterpolator);
+        updateFrameRate(true);
+        mAnimator.start();
+        if (playTime > 0) {
+            mAnimator.setCurrentPlayTime(playTime);
+        }
+    }
+
+    public void cancelAnimate() {
+        if (mAnimator != null) {
+            mAnimator.cancel();
+        }
+    }
+
+    public boolean isAnimating() {
+        return mAnimator != null && mAnimator.isRunning();
+    }
+
+    public void setAnimationDuration(long durationMillis) {
+        mAnimationDuration = durationMillis;
+    }
+
+    public long getAnimationDuration() {
+        return mAnimationDuration;
+    }
+
+    public void setAnimationInterpolator(TimeInterpolator interpolator) {
+        mAnimationInterpolator = interpolator == null ? DEFAULT_INTERPOLATOR : interpolator;
+    }
+
+    public TimeInterpolator getAnimationInterpolator() {
+        return mAnimationInterpolator;
+    }
+
+    public void setOnAnimationEndListener(OnAnimationEndListener listener) {
+        mOnAnimationEndListener = listener;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.ratio = mRatio;
+        state.sunriseSecond = mSunriseTime == null ? -1 : mSunriseTime.getSecondOfDay();
+        state.sunsetSecond = mSunsetTime == null ? -1 : mSunsetTime.getSecondOfDay();
+        if (isAnimating()) {
+            state.animationStart = mAnimationStart;
+            state.animationTarget = mAnimationTarget;
+            state.animationPlayTime = mAnimator.getCurrentPlayTime();
+        }
+        return state;
+    }
+
+    /**
+     * Restores the times and the sun position, and resumes an interrupted animation where it
+     * stopped. An animation the host started again before the restore (e.g. startAnimate() in
+     * onCreate) is replaced, so a recreated screen shows the saved frame right away.
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState saved = (SavedState) state;
+        super.onRestoreInstanceState(saved.getSuperState());
+        beginBatchEdit();
+        setSunriseTime(saved.sunriseSecond < 0 ? null : Time.ofSecondOfDay(saved.sunriseSecond));
+        setSunsetTime(saved.sunsetSecond < 0 ? null : Time.ofSecondOfDay(saved.sunsetSecond));
+        cancelAnimate();
+        setRatio(saved.ratio);
+        endBatchEdit();
+        if (saved.animationPlayTime >= 0) {
+            startAnimator(saved.animationStart, saved.animationTarget, saved.animationPlayTime);
+        }
+    }
+
+    /**
+     * 保存的状态: 比率, 日出日落时间 (午夜后的秒数, -1: 未设置) 和动画进度
+     */
+    static class SavedState extends BaseSavedState {
+        float ratio;
+        int sunriseSecond = -1;
+        int sunsetSecond = -1;
+        float animationStart;
+        float animationTarget;
+        // < 0: 没有进行中的动画
+        long animationPlayTime = -1;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            ratio = in.readFloat();
+            sunriseSecond = in.readInt();
+            sunsetSecond = in.readInt();
+            animationPlayTime = in.readLong();
+            if (animationPlayTime >= 0) {
+                animationStart = in.readFloat();
+                animationTarget = in.readFloat();
+            }
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeFloat(ratio);
+            out.writeInt(sunriseSecond);
+            out.writeInt(sunsetSecond);
+            out.writeLong(animationPlayTime);
+            if (animationPlayTime >= 0) {
+                out.writeFloat(animationStart);
+                out.writeFloat(animationTarget);
+            }
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RectF;
+
+/**
+ * Offscreen copy of the static part of a {@link SunriseView}: the dashed track and,
+ * optionally, the labels. The layer is re-recorded only after {@link #invalidate()} or when
+ * the size or the track changes, animation frames just blit the bitmap.
+ */
+final class TrackLayerCache {
+
+    private final Canvas mCanvas = new Canvas();
+    private final RectF mTrack = new RectF();
+    private Bitmap mBitmap;
+    private boolean mDirty = true;
+
+    void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * @return true if the layer was recorded for this size and track
+     */
+    boolean matches(int width, int height, RectF track) {
+        return mBitmap != null && mBitmap.getWidth() == width && mBitmap.getHeight() == height
+                && mTrack.equals(track);
+    }
+
+    /**
+     * @return true if the layer has to be recorded again before it can be drawn
+     */
+    boolean isDirty(int width, int height, RectF track) {
+        return mDirty || !matches(width, height, track);
+    }
+
+    /**
+     * Returns a cleared canvas of the given size to record the layer into.
+     */
+    Canvas beginRecording(int width, int height, RectF track) {
+        if (mBitmap == null || mBitmap.getWidth() != width || mBitmap.getHeight() != height) {
+            release();
+            mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mCanvas.setBitmap(mBitmap);
+        } else {
+            mBitmap.eraseColor(Color.TRANSPARENT);
+        }
+        mTrack.set(track);
+        return mCanvas;
+    }
+
+    void endRecording() {
+        mDirty = false;
+    }
+
+    void draw(Canvas canvas) {
+        if (mBitmap != null) {
+            canvas.drawBitmap(mBitmap, 0, 0, null);
+        }
+    }
+
+    /**
+     * Frees the bitmap, the next draw records the layer again.
+     */
+    void release() {
+        if (mBitmap != null) {
+            mCanvas.setBitmap(null);
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        mDirty = true;
+    }
+}
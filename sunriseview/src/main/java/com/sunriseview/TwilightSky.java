@@ -0,0 +1,210 @@
+package com.sunriseview;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import com.sunriseview.oters.Time;
+import com.sunriseview.solar.SolarTimes;
+
+/**
+ * Civil, nautical and astronomical twilight shading above the horizon of a {@link SunriseView}.
+ * <p>
+ * The sky is a vertical gradient of the twilight bands plus a radial glow at the end of the
+ * arc where the sun rises or sets. Both shaders are built once per board size and color set.
+ * The time of day only moves the gradients (by translating the canvas, so the shader and its
+ * native instance stay the same) and changes the paint alpha, frames allocate nothing.
+ */
+final class TwilightSky {
+
+    static final int DEFAULT_CIVIL_COLOR = 0x99F2A65A;
+    static final int DEFAULT_NAUTICAL_COLOR = 0x805B5F97;
+    static final int DEFAULT_ASTRONOMICAL_COLOR = 0x662B2D5C;
+    static final int DEFAULT_NIGHT_COLOR = 0x400B1026;
+
+    // 最深: 太阳低于天文晨昏线
+    static final float MAX_DEPTH = 3;
+
+    // sunrise, civil, nautical, astronomical dawn; sunset, civil, nautical, astronomical dusk
+    private final int[] mDawn = new int[4];
+    private final int[] mDusk = new int[4];
+    private boolean mHasTimes;
+
+    private final int[] mColors = {DEFAULT_CIVIL_COLOR, DEFAULT_NAUTICAL_COLOR,
+            DEFAULT_ASTRONOMICAL_COLOR, DEFAULT_NIGHT_COLOR};
+
+    private final Paint mBandPaint = new Paint();
+    private final Paint mGlowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    // 着色器对应的尺寸, 变化时才重建
+    private float mShaderBandHeight = -1;
+    private float mShaderGlowRadius = -1;
+
+    // 当前状态: 太阳在地平线下的深度 [0, 3], 早晨或傍晚, 不透明度
+    private float mDepth;
+    private boolean mMorning;
+    private int mAlpha;
+
+    void setTimes(SolarTimes times) {
+        mHasTimes = times != null;
+        if (times == null) {
+            return;
+        }
+        mDawn[0] = times.sunrise;
+        mDawn[1] = times.civilDawn;
+        mDawn[2] = times.nauticalDawn;
+        mDawn[3] = times.astronomicalDawn;
+        mDusk[0] = times.sunset;
+        mDusk[1] = times.civilDusk;
+        mDusk[2] = times.nauticalDusk;
+        mDusk[3] = times.astronomicalDusk;
+    }
+
+    boolean isEnabled() {
+        return mHasTimes && SolarTimes.hasEvent(mDawn[0]) && SolarTimes.hasEvent(mDusk[0]);
+    }
+
+    void setColors(int civil, int nautical, int astronomical, int night) {
+        mColors[0] = civil;
+        mColors[1] = nautical;
+        mColors[2] = astronomical;
+        mColors[3] = night;
+        // rebuild the shaders on the next draw
+        mShaderBandHeight = -1;
+    }
+
+    /**
+     * @param seconds local time in seconds after midnight
+     * @return true if the sky looks different now
+     */
+    boolean setTime(int seconds) {
+        if (!isEnabled()) {
+            return false;
+        }
+        int sunrise = mDawn[0];
+        int sunset = mDusk[0];
+        float depth;
+        int alpha;
+        boolean morning;
+        if (seconds < sunrise || seconds > sunset) {
+            morning = seconds < sunrise;
+            depth = morning ? depth(sunrise - seconds, mDawn, -1) : depth(seconds - sunset, mDusk, 1);
+            alpha = 255;
+        } else {
+            // 日出后与日落前的余晖, 在一个民用晨昏时长内淡出
+            morning = seconds - sunrise < sunset - seconds;
+            int sinceHorizon = morning ? seconds - sunrise : sunset - seconds;
+            int fade = morning ? duration(mDawn, -1) : duration(mDusk, 1);
+            depth = 0;
+            alpha = fade <= 0 ? 0 : Math.max(0, 255 - 255 * sinceHorizon / fade);
+        }
+        boolean changed = depth != mDepth || alpha != mAlpha || morning != mMorning;
+        mDepth = depth;
+        mAlpha = alpha;
+        mMorning = morning;
+        return changed;
+    }
+
+    /**
+     * Sets the time of day at the sun position {@code ratio} between sunrise (0) and sunset (1),
+     * ratios outside [0, 1] extrapolate the day length below the horizon.
+     *
+     * @return true if the sky looks different now
+     */
+    boolean setRatio(float ratio) {
+        if (!isEnabled()) {
+            return false;
+        }
+        float seconds = mDawn[0] + ratio * (mDusk[0] - mDawn[0]);
+        return setTime((int) Math.max(0, Math.min(Time.SECONDS_PER_DAY - 1, seconds)));
+    }
+
+    float getDepth() {
+        return mDepth;
+    }
+
+    int getAlpha() {
+        return mAlpha;
+    }
+
+    /**
+     * How far the sun is below the horizon in twilight bands: 0 at sunrise/sunset, 1 at the
+     * civil, 2 at the nautical and 3 at the astronomical dawn/dusk.
+     *
+     * @param beyond    seconds since sunset, or before sunrise
+     * @param events    sunrise/sunset followed by the civil, nautical and astronomical events
+     * @param direction -1 for dawn (events run backwards in time), 1 for dusk
+     */
+    static float depth(int beyond, int[] events, int direction) {
+        for (int level = 0; level < 3; level++) {
+            if (!SolarTimes.hasEvent(events[level + 1])) {
+                // 白夜: 太阳不会更深, 停留在这一层
+                return level;
+            }
+            int length = (events[level + 1] - events[level]) * direction;
+            int start = (events[level] - events[0]) * direction;
+            if (length > 0 && beyond < start + length) {
+                return level + (float) (beyond - start) / length;
+            }
+        }
+        return MAX_DEPTH;
+    }
+
+    // 民用晨昏的时长, 没有时用 0
+    private static int duration(int[] events, int direction) {
+        return SolarTimes.hasEvent(events[1]) ? (events[1] - events[0]) * direction : 0;
+    }
+
+    /**
+     * Draws the sky above the horizon of {@code board}, from x = 0 to {@code width}.
+     */
+    void draw(Canvas canvas, RectF board, float trackRadius, int width) {
+        if (mAlpha == 0) {
+            return;
+        }
+        float bandHeight = board.height();
+        if (bandHeight <= 0) {
+            return;
+        }
+        ensureShaders(bandHeight, trackRadius);
+        float horizon = board.bottom;
+
+        // 深度增加时色带下移, 更深的颜色露出来
+        float dy = mDepth * bandHeight;
+        mBandPaint.setAlpha(mAlpha);
+        int save = canvas.save();
+        canvas.translate(0, horizon + dy);
+        canvas.drawRect(0, -horizon - dy, width, -dy, mBandPaint);
+        canvas.restoreToCount(save);
+
+        // 日出或日落一端的光晕, 到航海晨昏时消失
+        int glowAlpha = (int) (mAlpha * Math.max(0, 1 - mDepth / 2));
+        if (glowAlpha > 0) {
+            float glowX = mMorning ? board.left : board.right;
+            mGlowPaint.setAlpha(glowAlpha);
+            save = canvas.save();
+            canvas.translate(glowX, horizon);
+            canvas.drawRect(-glowX, -horizon, width - glowX, 0, mGlowPaint);
+            canvas.restoreToCount(save);
+        }
+    }
+
+    private void ensureShaders(float bandHeight, float glowRadius) {
+        if (bandHeight == mShaderBandHeight && glowRadius == mShaderGlowRadius) {
+            return;
+        }
+        mShaderBandHeight = bandHeight;
+        mShaderGlowRadius = glowRadius;
+        // 从地平线 (y = 0) 向上, 每层一个色带高度
+        mBandPaint.setShader(new LinearGradient(0, 0, 0, -MAX_DEPTH * bandHeight, mColors,
+                new float[]{0, 1 / MAX_DEPTH, 2 / MAX_DEPTH, 1}, Shader.TileMode.CLAMP));
+        mGlowPaint.setShader(glowRadius <= 0 ? null : new RadialGradient(0, 0, glowRadius,
+                mColors[0], mColors[0] & 0x00FFFFFF, Shader.TileMode.CLAMP));
+        if (glowRadius <= 0) {
+            mGlowPaint.setColor(Color.TRANSPARENT);
+        }
+    }
+}
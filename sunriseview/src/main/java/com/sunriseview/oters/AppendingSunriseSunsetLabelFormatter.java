@@ -0,0 +1,16 @@
+package com.sunriseview.oters;
+
+
+import java.util.Locale;
+
+/**
+ * 日出日落标签格式化, 结果追加到调用方复用的 StringBuilder 中.
+ * SunriseView prefers this contract over the String returning one, labels are then
+ * formatted without allocating and only when the times, the formatter or the locale change.
+ */
+public interface AppendingSunriseSunsetLabelFormatter extends SunriseSunsetLabelFormatter {
+
+    void formatSunriseLabel(Time sunrise, Locale locale, StringBuilder out);
+
+    void formatSunsetLabel(Time sunset, Locale locale, StringBuilder out);
+}
@@ -1,9 +1,21 @@
 package com.sunriseview.oters;
 
 
+import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
-public class SimpleSunriseSunsetLabelFormatter implements SunriseSunsetLabelFormatter {
+public class SimpleSunriseSunsetLabelFormatter implements AppendingSunriseSunsetLabelFormatter {
+
+    // DecimalFormatSymbols lookup is not free, remember the zero digit of the last locale
+    private Locale mLocale;
+    private char mZeroDigit = '0';
+
+    // formatTime 复用同一个 builder, 并记住上一次的结果: 同一时间重复格式化不分配
+    private final StringBuilder mBuilder = new StringBuilder(5);
+    private Time mLastTime;
+    private Locale mLastLocale;
+    private String mLastLabel;
+
     @Override
     public String formatSunriseLabel(Time sunrise) {
         return formatTime(sunrise);
@@ -14,8 +26,58 @@ public class SimpleSunriseSunsetLabelFormatter implements SunriseSunsetLabelForm
         return formatTime(sunset);
     }
 
-    public String formatTime(Time time) {
-        return String.format(Locale.getDefault(), "%d:%d", time.hour, time.minute);
+    @Override
+    public void formatSunriseLabel(Time sunrise, Locale locale, StringBuilder out) {
+        appendTime(sunrise, locale, out);
+    }
+
+    @Override
+    public void formatSunsetLabel(Time sunset, Locale locale, StringBuilder out) {
+        appendTime(sunset, locale, out);
+    }
+
+    /**
+     * Same as {@link #appendTime}, with the default locale. Formatting the same time again
+     * returns the previous String.
+     */
+    public synchronized String formatTime(Time time) {
+        Locale locale = Locale.getDefault();
+        if (time.equals(mLastTime) && locale.equals(mLastLocale)) {
+            return mLastLabel;
+        }
+        mBuilder.setLength(0);
+        appendTime(time, locale, mBuilder);
+        mLastTime = time;
+        mLastLocale = locale;
+        mLastLabel = mBuilder.toString();
+        return mLastLabel;
+    }
+
+    /**
+     * Appends "hour:minute" the way {@code String.format(locale, "%d:%d", ...)} does,
+     * including the locale's digits, without going through {@link java.util.Formatter}.
+     */
+    public void appendTime(Time time, Locale locale, StringBuilder out) {
+        char zeroDigit = zeroDigit(locale);
+        appendNumber(time.hour, zeroDigit, out);
+        out.append(':');
+        appendNumber(time.minute, zeroDigit, out);
+    }
+
+    private synchronized char zeroDigit(Locale locale) {
+        if (locale != mLocale) {
+            mZeroDigit = DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+            mLocale = locale;
+        }
+        return mZeroDigit;
+    }
+
+    // hour and minute of a Time have one or two digits, no padding
+    private static void appendNumber(int value, char zeroDigit, StringBuilder out) {
+        if (value >= 10) {
+            out.append((char) (zeroDigit + value / 10));
+        }
+        out.append((char) (zeroDigit + value % 10));
     }
 
-}
\ No newline at end of file
+}
@@ -1,18 +1,141 @@
 package com.sunriseview.oters;
 
-public class Time {
+import androidx.annotation.RequiresApi;
+
+import java.util.TimeZone;
+
+/**
+ * An immutable time of day, packed into the seconds after midnight.
+ * <p>
+ * Whole minutes from the {@code of*} factories are interned: there is one instance per minute
+ * of the day, so converting data source values in bulk allocates nothing.
+ * <p>
+ * Since 2.0 the class is final and {@link #hour} and {@link #minute} are final: instances are
+ * shared, so they can not be changed or subclassed. Create a new time instead of assigning
+ * the fields. The constructors now reject out of range values.
+ */
+public final class Time {
 
     public static final int MINUTES_PER_HOUR = 60;
+    public static final int SECONDS_PER_MINUTE = 60;
+    public static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    public static final int SECONDS_PER_DAY = MINUTES_PER_DAY * SECONDS_PER_MINUTE;
 
-    public int hour;
-    public int minute;
+    // 每分钟一个实例, 按需创建
+    private static final Time[] sMinutes = new Time[MINUTES_PER_DAY];
 
+    public final int hour;
+    public final int minute;
+    public final int second;
+    // 打包后的值: 午夜后的秒数
+    private final int mSecondOfDay;
+
+    /**
+     * Prefer {@link #of(int, int)}, which returns a shared instance.
+     */
     public Time(int hour, int minute) {
+        this(hour, minute, 0);
+    }
+
+    public Time(int hour, int minute, int second) {
+        checkRange("hour", hour, 24);
+        checkRange("minute", minute, MINUTES_PER_HOUR);
+        checkRange("second", second, SECONDS_PER_MINUTE);
         this.hour = hour;
         this.minute = minute;
+        this.second = second;
+        mSecondOfDay = (hour * MINUTES_PER_HOUR + minute) * SECONDS_PER_MINUTE + second;
+    }
+
+    public static Time of(int hour, int minute) {
+        checkRange("hour", hour, 24);
+        checkRange("minute", minute, MINUTES_PER_HOUR);
+        return ofMinuteOfDay(hour * MINUTES_PER_HOUR + minute);
+    }
+
+    public static Time of(int hour, int minute, int second) {
+        checkRange("hour", hour, 24);
+        checkRange("minute", minute, MINUTES_PER_HOUR);
+        checkRange("second", second, SECONDS_PER_MINUTE);
+        return ofSecondOfDay((hour * MINUTES_PER_HOUR + minute) * SECONDS_PER_MINUTE + second);
+    }
+
+    /**
+     * @param minuteOfDay minutes after midnight, [0, 1440)
+     */
+    public static Time ofMinuteOfDay(int minuteOfDay) {
+        checkRange("minuteOfDay", minuteOfDay, MINUTES_PER_DAY);
+        Time time = sMinutes[minuteOfDay];
+        if (time == null) {
+            // a racing thread may create a second equal instance, which is harmless
+            time = new Time(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR, 0);
+            sMinutes[minuteOfDay] = time;
+        }
+        return time;
+    }
+
+    /**
+     * @param secondOfDay seconds after midnight, [0, 86400); whole minutes are interned
+     */
+    public static Time ofSecondOfDay(int secondOfDay) {
+        checkRange("secondOfDay", secondOfDay, SECONDS_PER_DAY);
+        if (secondOfDay % SECONDS_PER_MINUTE == 0) {
+            return ofMinuteOfDay(secondOfDay / SECONDS_PER_MINUTE);
+        }
+        int minuteOfDay = secondOfDay / SECONDS_PER_MINUTE;
+        return new Time(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR,
+                secondOfDay % SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * The local time of day of an instant, truncated to the second.
+     */
+    public static Time ofEpochMillis(long epochMillis, TimeZone zone) {
+        long local = epochMillis + zone.getOffset(epochMillis);
+        long millisPerDay = SECONDS_PER_DAY * 1000L;
+        long millisOfDay = ((local % millisPerDay) + millisPerDay) % millisPerDay;
+        return ofSecondOfDay((int) (millisOfDay / 1000));
+    }
+
+    // Build.VERSION_CODES.O, a literal so the JVM benchmark can compile this package
+    @RequiresApi(26)
+    public static Time from(java.time.LocalTime localTime) {
+        return ofSecondOfDay(localTime.toSecondOfDay());
+    }
+
+    private static void checkRange(String name, int value, int end) {
+        if (value < 0 || value >= end) {
+            throw new IllegalArgumentException(name + " out of range [0, " + end + "): " + value);
+        }
+    }
+
+    public int getSecondOfDay() {
+        return mSecondOfDay;
+    }
+
+    /**
+     * @return the minutes after midnight, seconds are truncated
+     */
+    public int getMinuteOfDay() {
+        return mSecondOfDay / SECONDS_PER_MINUTE;
     }
 
     public int transformToMinutes() {
-        return hour * MINUTES_PER_HOUR + minute;
+        return getMinuteOfDay();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Time && ((Time) o).mSecondOfDay == mSecondOfDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return mSecondOfDay;
+    }
+
+    @Override
+    public String toString() {
+        return "Time{" + hour + ":" + minute + ":" + second + "}";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,196 @@
+package com.sunriseview.solar;
+
+import java.util.TimeZone;
+
+/**
+ * Offline sunrise/sunset calculator based on the NOAA solar position equations
+ * (Meeus, "Astronomical Algorithms"), accurate to about a minute between +/-72 degrees
+ * latitude and degrading gracefully towards the poles.
+ * <p>
+ * Latitudes are positive to the north, longitudes positive to the east. The calculator keeps
+ * a little scratch state and does not allocate, so reuse one instance per thread.
+ */
+public class SolarCalculator {
+
+    /**
+     * Zenith of the sun's upper limb at sunrise/sunset, including atmospheric refraction.
+     */
+    public static final double ZENITH_SUNRISE = 90.833;
+    public static final double ZENITH_CIVIL = 96;
+    public static final double ZENITH_NAUTICAL = 102;
+    public static final double ZENITH_ASTRONOMICAL = 108;
+
+    private static final double MINUTES_PER_DAY = 24 * 60;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    // Julian day of 1970-01-01T00:00Z
+    private static final double JULIAN_DAY_EPOCH = 2440587.5;
+    private static final double JULIAN_DAY_J2000 = 2451545.0;
+
+    // scratch results of sunPosition()
+    private double mDeclination;   // radians
+    private double mEquationOfTime; // minutes
+
+    // sun position at 12h UT of mNoonJulianDay, the first estimate for every event of that day
+    private double mNoonJulianDay = Double.NaN;
+    private double mNoonDeclination;
+    private double mNoonEquationOfTime;
+
+    /**
+     * Computes all events of the given local day.
+     *
+     * @param month            1 - 12
+     * @param utcOffsetMinutes offset of the local time from UTC, e.g. 360 for UTC+6
+     */
+    public void compute(double latitude, double longitude, int year, int month, int day,
+                        int utcOffsetMinutes, SolarTimes out) {
+        double julianDay = julianDay(year, month, day);
+        out.solarNoon = toLocalSeconds(solarNoon(julianDay, longitude), utcOffsetMinutes);
+        out.sunrise = event(julianDay, latitude, longitude, ZENITH_SUNRISE, true, utcOffsetMinutes);
+        out.sunset = event(julianDay, latitude, longitude, ZENITH_SUNRISE, false, utcOffsetMinutes);
+        out.civilDawn = event(julianDay, latitude, longitude, ZENITH_CIVIL, true, utcOffsetMinutes);
+        out.civilDusk = event(julianDay, latitude, longitude, ZENITH_CIVIL, false, utcOffsetMinutes);
+        out.nauticalDawn = event(julianDay, latitude, longitude, ZENITH_NAUTICAL, true, utcOffsetMinutes);
+        out.nauticalDusk = event(julianDay, latitude, longitude, ZENITH_NAUTICAL, false, utcOffsetMinutes);
+        out.astronomicalDawn = event(julianDay, latitude, longitude, ZENITH_ASTRONOMICAL, true, utcOffsetMinutes);
+        out.astronomicalDusk = event(julianDay, latitude, longitude, ZENITH_ASTRONOMICAL, false, utcOffsetMinutes);
+    }
+
+    /**
+     * Same as {@link #compute(double, double, int, int, int, int, SolarTimes)}, the offset is
+     * taken from {@code zone} at noon of that day, so daylight saving time is honored.
+     */
+    public void compute(double latitude, double longitude, int year, int month, int day,
+                        TimeZone zone, SolarTimes out) {
+        compute(latitude, longitude, year, month, day, utcOffsetMinutes(zone, year, month, day), out);
+    }
+
+    /**
+     * Batch entry point: sunrise and sunset of one day for many locations.
+     * Results are written as seconds after local midnight (or {@link SolarTimes#ALWAYS_ABOVE}/
+     * {@link SolarTimes#ALWAYS_BELOW}) at the location's index.
+     */
+    public void computeSunriseSunset(double[] latitudes, double[] longitudes, int[] utcOffsetMinutes,
+                                     int year, int month, int day, int[] sunriseOut, int[] sunsetOut) {
+        double julianDay = julianDay(year, month, day);
+        for (int i = 0; i < latitudes.length; i++) {
+            sunriseOut[i] = event(julianDay, latitudes[i], longitudes[i], ZENITH_SUNRISE, true, utcOffsetMinutes[i]);
+            sunsetOut[i] = event(julianDay, latitudes[i], longitudes[i], ZENITH_SUNRISE, false, utcOffsetMinutes[i]);
+        }
+    }
+
+    /**
+     * Sunrise (or sunset) of one local day, in seconds after local midnight.
+     */
+    public int sunrise(double latitude, double longitude, int year, int month, int day, int utcOffsetMinutes) {
+        return event(julianDay(year, month, day), latitude, longitude, ZENITH_SUNRISE, true, utcOffsetMinutes);
+    }
+
+    public int sunset(double latitude, double longitude, int year, int month, int day, int utcOffsetMinutes) {
+        return event(julianDay(year, month, day), latitude, longitude, ZENITH_SUNRISE, false, utcOffsetMinutes);
+    }
+
+    /**
+     * @return the UTC offset of {@code zone} at noon UTC of the given day, in minutes
+     */
+    public static int utcOffsetMinutes(TimeZone zone, int year, int month, int day) {
+        long noonUtc = (long) ((julianDay(year, month, day) - JULIAN_DAY_EPOCH) * MILLIS_PER_DAY) + MILLIS_PER_DAY / 2;
+        return zone.getOffset(noonUtc) / 60000;
+    }
+
+    /**
+     * Julian day at 0h UT of a Gregorian calendar date.
+     */
+    static double julianDay(int year, int month, int day) {
+        if (month <= 2) {
+            year -= 1;
+            month += 12;
+        }
+        int a = year / 100;
+        int b = 2 - a + a / 4;
+        return Math.floor(365.25 * (year + 4716)) + Math.floor(30.6001 * (month + 1)) + day + b - 1524.5;
+    }
+
+    // solar noon in UTC minutes after 0h of julianDay
+    private double solarNoon(double julianDay, double longitude) {
+        double noon = 720 - 4 * longitude;
+        sunPosition(julianDay + noon / MINUTES_PER_DAY);
+        noon = 720 - 4 * longitude - mEquationOfTime;
+        sunPosition(julianDay + noon / MINUTES_PER_DAY);
+        return 720 - 4 * longitude - mEquationOfTime;
+    }
+
+    private int event(double julianDay, double latitude, double longitude, double zenith,
+                      boolean rising, int utcOffsetMinutes) {
+        double latitudeRad = Math.toRadians(latitude);
+        double cosZenith = Math.cos(Math.toRadians(zenith));
+        // first pass with the sun at noon UT, second pass with the sun at the estimated event
+        double minutes = 0;
+        int result = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            if (pass == 0) {
+                noonPosition(julianDay);
+            } else {
+                sunPosition(julianDay + minutes / MINUTES_PER_DAY);
+            }
+            double cosHourAngle = cosZenith / (Math.cos(latitudeRad) * Math.cos(mDeclination))
+                    - Math.tan(latitudeRad) * Math.tan(mDeclination);
+            if (cosHourAngle > 1 || cosHourAngle < -1) {
+                if (pass == 0) {
+                    return cosHourAngle > 1 ? SolarTimes.ALWAYS_BELOW : SolarTimes.ALWAYS_ABOVE;
+                }
+                // the refined position just crossed the limit, keep the first estimate
+                return result;
+            }
+            double hourAngle = Math.toDegrees(Math.acos(cosHourAngle));
+            minutes = 720 - 4 * (longitude + (rising ? hourAngle : -hourAngle)) - mEquationOfTime;
+            result = toLocalSeconds(minutes, utcOffsetMinutes);
+        }
+        return result;
+    }
+
+    private static int toLocalSeconds(double utcMinutes, int utcOffsetMinutes) {
+        return (int) Math.round((utcMinutes + utcOffsetMinutes) * 60);
+    }
+
+    private void noonPosition(double julianDay) {
+        if (julianDay != mNoonJulianDay) {
+            sunPosition(julianDay + 0.5);
+            mNoonJulianDay = julianDay;
+            mNoonDeclination = mDeclination;
+            mNoonEquationOfTime = mEquationOfTime;
+        } else {
+            mDeclination = mNoonDeclination;
+            mEquationOfTime = mNoonEquationOfTime;
+        }
+    }
+
+    // NOAA solar position, stores declination and equation of time for the given Julian day
+    private void sunPosition(double julianDay) {
+        double t = (julianDay - JULIAN_DAY_J2000) / 36525;
+
+        double meanLongitude = Math.toRadians((280.46646 + t * (36000.76983 + t * 0.0003032)) % 360);
+        double meanAnomaly = Math.toRadians(357.52911 + t * (35999.05029 - 0.0001537 * t));
+        double eccentricity = 0.016708634 - t * (0.000042037 + 0.0000001267 * t);
+
+        double sinM = Math.sin(meanAnomaly);
+        double center = sinM * (1.914602 - t * (0.004817 + 0.000014 * t))
+                + Math.sin(2 * meanAnomaly) * (0.019993 - 0.000101 * t)
+                + Math.sin(3 * meanAnomaly) * 0.000289;
+        double omega = Math.toRadians(125.04 - 1934.136 * t);
+        double apparentLongitude = Math.toRadians(Math.toDegrees(meanLongitude) + center - 0.00569 - 0.00478 * Math.sin(omega));
+
+        double meanObliquity = 23 + (26 + (21.448 - t * (46.815 + t * (0.00059 - t * 0.001813))) / 60) / 60;
+        double obliquity = Math.toRadians(meanObliquity + 0.00256 * Math.cos(omega));
+
+        mDeclination = Math.asin(Math.sin(obliquity) * Math.sin(apparentLongitude));
+
+        double y = Math.tan(obliquity / 2);
+        y *= y;
+        double equationOfTime = y * Math.sin(2 * meanLongitude)
+                - 2 * eccentricity * sinM
+                + 4 * eccentricity * y * sinM * Math.cos(2 * meanLongitude)
+                - 0.5 * y * y * Math.sin(4 * meanLongitude)
+                - 1.25 * eccentricity * eccentricity * Math.sin(2 * meanAnomaly);
+        mEquationOfTime = 4 * Math.toDegrees(equationOfTime);
+    }
+}
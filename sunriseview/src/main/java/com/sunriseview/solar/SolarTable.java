@@ -0,0 +1,190 @@
+package com.sunriseview.solar;
+
+import com.sunriseview.oters.Time;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only, memory-mapped table of precomputed sunrise/sunset times, written by
+ * {@link SolarTableBuilder}.
+ * <p>
+ * File layout (little endian): a {@link #HEADER_SIZE} byte header
+ * ({@code magic, version, year, locationCount, dayCount, reserved}) followed by one int per
+ * location and day, {@code sunrise << 16 | sunset}, each half holding the minute of the local
+ * day or {@link #PACKED_ALWAYS_ABOVE}/{@link #PACKED_ALWAYS_BELOW}. Lookups read straight from
+ * the mapping and do not allocate, only the pages that are touched are loaded.
+ */
+public class SolarTable {
+
+    static final int MAGIC = 0x54535253; // "SRST"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 4;
+
+    static final int PACKED_ALWAYS_ABOVE = 0xFFFF;
+    static final int PACKED_ALWAYS_BELOW = 0xFFFE;
+
+    /**
+     * Returned by {@link #getRiseSetMinutes(int, int)} when the sun does not rise or set.
+     */
+    public static final int NO_RISE_SET = -1;
+
+    private final ByteBuffer mBuffer;
+    private final int mYear;
+    private final int mLocationCount;
+    private final int mDayCount;
+
+    private SolarTable(ByteBuffer buffer) throws IOException {
+        mBuffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (mBuffer.capacity() < HEADER_SIZE || mBuffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a sunrise table");
+        }
+        if (mBuffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported sunrise table version " + mBuffer.getInt(4));
+        }
+        mYear = mBuffer.getInt(8);
+        mLocationCount = mBuffer.getInt(12);
+        mDayCount = mBuffer.getInt(16);
+        if (mBuffer.capacity() < HEADER_SIZE + (long) mLocationCount * mDayCount * RECORD_SIZE) {
+            throw new IOException("Truncated sunrise table");
+        }
+    }
+
+    /**
+     * Maps a table file. The mapping stays valid after the file channel is closed.
+     */
+    public static SolarTable open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new SolarTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wraps an already loaded table, e.g. one read from an asset.
+     */
+    public static SolarTable wrap(ByteBuffer buffer) throws IOException {
+        return new SolarTable(buffer.duplicate());
+    }
+
+    public int getYear() {
+        return mYear;
+    }
+
+    public int getLocationCount() {
+        return mLocationCount;
+    }
+
+    public int getDayCount() {
+        return mDayCount;
+    }
+
+    /**
+     * @param dayOfYear 1-based, like {@link java.util.Calendar#DAY_OF_YEAR}
+     * @return sunrise as minute of the local day, or {@link SolarTimes#ALWAYS_ABOVE}/{@link SolarTimes#ALWAYS_BELOW}
+     */
+    public int getSunriseMinutes(int locationId, int dayOfYear) {
+        return unpack(record(locationId, dayOfYear) >>> 16);
+    }
+
+    /**
+     * @param dayOfYear 1-based, like {@link java.util.Calendar#DAY_OF_YEAR}
+     * @return sunset as minute of the local day, or {@link SolarTimes#ALWAYS_ABOVE}/{@link SolarTimes#ALWAYS_BELOW}
+     */
+    public int getSunsetMinutes(int locationId, int dayOfYear) {
+        return unpack(record(locationId, dayOfYear) & 0xFFFF);
+    }
+
+    /**
+     * @return the shared sunrise {@link Time}, or null if the sun does not rise that day
+     */
+    public Time getSunriseTime(int locationId, int dayOfYear) {
+        int minutes = record(locationId, dayOfYear) >>> 16;
+        return minutes >= PACKED_ALWAYS_BELOW ? null : Time.ofMinuteOfDay(minutes);
+    }
+
+    /**
+     * @return the shared sunset {@link Time}, or null if the sun does not set that day
+     */
+    public Time getSunsetTime(int locationId, int dayOfYear) {
+        int minutes = record(locationId, dayOfYear) & 0xFFFF;
+        return minutes >= PACKED_ALWAYS_BELOW ? null : Time.ofMinuteOfDay(minutes);
+    }
+
+    /**
+     * Sunrise and sunset in one read, without allocating:
+     * <pre>
+     * int minutes = table.getRiseSetMinutes(locationId, dayOfYear);
+     * if (minutes != SolarTable.NO_RISE_SET) {
+     *     view.setSunriseSunsetMinutes(SolarTable.sunriseOf(minutes), SolarTable.sunsetOf(minutes));
+     * }
+     * </pre>
+     *
+     * @return {@code sunrise << 16 | sunset} in minutes of the local day, or {@link #NO_RISE_SET}
+     * if the sun does not rise or set on that day
+     */
+    public int getRiseSetMinutes(int locationId, int dayOfYear) {
+        int record = record(locationId, dayOfYear);
+        if ((record >>> 16) >= PACKED_ALWAYS_BELOW || (record & 0xFFFF) >= PACKED_ALWAYS_BELOW) {
+            return NO_RISE_SET;
+        }
+        return record;
+    }
+
+    /**
+     * @param riseSetMinutes a value of {@link #getRiseSetMinutes(int, int)}
+     */
+    public static int sunriseOf(int riseSetMinutes) {
+        return riseSetMinutes >>> 16;
+    }
+
+    /**
+     * @param riseSetMinutes a value of {@link #getRiseSetMinutes(int, int)}
+     */
+    public static int sunsetOf(int riseSetMinutes) {
+        return riseSetMinutes & 0xFFFF;
+    }
+
+    private int record(int locationId, int dayOfYear) {
+        if (locationId < 0 || locationId >= mLocationCount) {
+            throw new IndexOutOfBoundsException("locationId " + locationId + ", size " + mLocationCount);
+        }
+        if (dayOfYear < 1 || dayOfYear > mDayCount) {
+            throw new IndexOutOfBoundsException("dayOfYear " + dayOfYear + ", days " + mDayCount);
+        }
+        return mBuffer.getInt(offset(locationId, dayOfYear - 1, mDayCount));
+    }
+
+    static int offset(int locationId, int dayIndex, int dayCount) {
+        return HEADER_SIZE + (locationId * dayCount + dayIndex) * RECORD_SIZE;
+    }
+
+    static int pack(int sunriseSeconds, int sunsetSeconds) {
+        return packMinutes(sunriseSeconds) << 16 | packMinutes(sunsetSeconds);
+    }
+
+    private static int packMinutes(int seconds) {
+        if (seconds == SolarTimes.ALWAYS_ABOVE) {
+            return PACKED_ALWAYS_ABOVE;
+        }
+        if (seconds == SolarTimes.ALWAYS_BELOW) {
+            return PACKED_ALWAYS_BELOW;
+        }
+        return SolarTimes.toMinuteOfDay(seconds);
+    }
+
+    private static int unpack(int packed) {
+        if (packed == PACKED_ALWAYS_ABOVE) {
+            return SolarTimes.ALWAYS_ABOVE;
+        }
+        if (packed == PACKED_ALWAYS_BELOW) {
+            return SolarTimes.ALWAYS_BELOW;
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,135 @@
+package com.sunriseview.solar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes a year of sunrise/sunset times for many locations and writes them as a
+ * {@link SolarTable} file. Locations are split across the cores of a {@link ForkJoinPool},
+ * every worker writes its own range of the memory-mapped output.
+ */
+public class SolarTableBuilder {
+
+    // locations per leaf task, a leaf computes about 2 * 366 * THRESHOLD events
+    private static final int THRESHOLD = 32;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final int mYear;
+    private final List<Location> mLocations = new ArrayList<>();
+
+    public SolarTableBuilder(int year) {
+        mYear = year;
+    }
+
+    /**
+     * @return the location id to look the location up in the built table
+     */
+    public int addLocation(double latitude, double longitude, TimeZone zone) {
+        mLocations.add(new Location(latitude, longitude, zone));
+        return mLocations.size() - 1;
+    }
+
+    public void build(File file) throws IOException {
+        build(file, ForkJoinPool.commonPool());
+    }
+
+    public void build(File file, ForkJoinPool pool) throws IOException {
+        int dayCount = isLeapYear(mYear) ? 366 : 365;
+        int[] months = new int[dayCount];
+        int[] days = new int[dayCount];
+        for (int month = 1, index = 0; month <= 12; month++) {
+            int length = DAYS_IN_MONTH[month - 1] + (month == 2 && dayCount == 366 ? 1 : 0);
+            for (int day = 1; day <= length; day++, index++) {
+                months[index] = month;
+                days[index] = day;
+            }
+        }
+
+        long size = SolarTable.offset(mLocations.size(), 0, dayCount);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(size);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, SolarTable.MAGIC);
+            buffer.putInt(4, SolarTable.VERSION);
+            buffer.putInt(8, mYear);
+            buffer.putInt(12, mLocations.size());
+            buffer.putInt(16, dayCount);
+            buffer.putInt(20, 0);
+
+            pool.invoke(new BuildTask(buffer, months, days, 0, mLocations.size()));
+            buffer.force();
+        }
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static class Location {
+        final double latitude;
+        final double longitude;
+        final TimeZone zone;
+
+        Location(double latitude, double longitude, TimeZone zone) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.zone = zone;
+        }
+    }
+
+    private class BuildTask extends RecursiveAction {
+
+        // never serialized, RecursiveAction is Serializable only by inheritance
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer mBuffer;
+        private final int[] mMonths;
+        private final int[] mDays;
+        private final int mFrom;
+        private final int mTo;
+
+        BuildTask(ByteBuffer buffer, int[] months, int[] days, int from, int to) {
+            mBuffer = buffer;
+            mMonths = months;
+            mDays = days;
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > THRESHOLD) {
+                int middle = (mFrom + mTo) >>> 1;
+                invokeAll(new BuildTask(mBuffer, mMonths, mDays, mFrom, middle),
+                        new BuildTask(mBuffer, mMonths, mDays, middle, mTo));
+                return;
+            }
+            // absolute puts on a private view, workers never touch the same range
+            ByteBuffer out = mBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            SolarCalculator calculator = new SolarCalculator();
+            int dayCount = mMonths.length;
+            for (int id = mFrom; id < mTo; id++) {
+                Location location = mLocations.get(id);
+                for (int i = 0; i < dayCount; i++) {
+                    int offset = SolarCalculator.utcOffsetMinutes(location.zone, mYear, mMonths[i], mDays[i]);
+                    int sunrise = calculator.sunrise(location.latitude, location.longitude, mYear, mMonths[i], mDays[i], offset);
+                    int sunset = calculator.sunset(location.latitude, location.longitude, mYear, mMonths[i], mDays[i], offset);
+                    out.putInt(SolarTable.offset(id, i, dayCount), SolarTable.pack(sunrise, sunset));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sunriseview.solar;
+
+import com.sunriseview.oters.Time;
+
+/**
+ * Solar events of one location and local day, filled in by {@link SolarCalculator}.
+ * <p>
+ * Every event is stored as seconds after local midnight. Near the date line or with unusual
+ * time zones an event can fall slightly before 0 or after {@link #SECONDS_PER_DAY}.
+ * When the sun never crosses the event's altitude on that day the value is
+ * {@link #ALWAYS_ABOVE} (e.g. polar day for sunrise/sunset) or {@link #ALWAYS_BELOW}
+ * (e.g. polar night). Instances are meant to be reused.
+ */
+public class SolarTimes {
+
+    public static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    /**
+     * The sun stays above the event's altitude all day.
+     */
+    public static final int ALWAYS_ABOVE = Integer.MAX_VALUE;
+    /**
+     * The sun stays below the event's altitude all day.
+     */
+    public static final int ALWAYS_BELOW = Integer.MIN_VALUE;
+
+    public int astronomicalDawn;
+    public int nauticalDawn;
+    public int civilDawn;
+    public int sunrise;
+    public int solarNoon;
+    public int sunset;
+    public int civilDusk;
+    public int nauticalDusk;
+    public int astronomicalDusk;
+
+    /**
+     * @return true if the sun does not set on this day
+     */
+    public boolean isPolarDay() {
+        return sunrise == ALWAYS_ABOVE;
+    }
+
+    /**
+     * @return true if the sun does not rise on this day
+     */
+    public boolean isPolarNight() {
+        return sunrise == ALWAYS_BELOW;
+    }
+
+    /**
+     * @return true if {@code seconds} is an actual time and not {@link #ALWAYS_ABOVE}/{@link #ALWAYS_BELOW}
+     */
+    public static boolean hasEvent(int seconds) {
+        return seconds != ALWAYS_ABOVE && seconds != ALWAYS_BELOW;
+    }
+
+    /**
+     * Converts an event to a {@link Time}, rounded to the minute and wrapped into the day.
+     *
+     * @return the time, or null if there is no such event on this day
+     */
+    public static Time toTime(int seconds) {
+        if (!hasEvent(seconds)) {
+            return null;
+        }
+        return Time.ofMinuteOfDay(toMinuteOfDay(seconds));
+    }
+
+    /**
+     * Rounds an event to the minute and wraps it into [0, 1440).
+     */
+    public static int toMinuteOfDay(int seconds) {
+        int minutes = Math.round(seconds / 60f);
+        int minutesPerDay = SECONDS_PER_DAY / 60;
+        return ((minutes % minutesPerDay) + minutesPerDay) % minutesPerDay;
+    }
+
+    public Time getSunriseTime() {
+        return toTime(sunrise);
+    }
+
+    public Time getSunsetTime() {
+        return toTime(sunset);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sunriseview;
+
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class CelestialBodyTest {
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void celestialBodiesOnlyAddSpriteBlits() {
+        mView.setRatio(0.5f);
+        mView.onDraw(mCanvas);
+        int drawCalls = mCanvas.drawCalls;
+        int pathCalls = mCanvas.pathCalls;
+        int bitmapCalls = mCanvas.bitmapCalls;
+
+        // 12:24 is the middle of the day: the moon (rose 9:00) is up, the second body is not
+        mView.addCelestialBody(new CelestialBody(new ColorDrawable(Color.WHITE), 8, Time.of(9, 0), Time.of(21, 0)));
+        mView.addCelestialBody(new CelestialBody(new ColorDrawable(Color.GRAY), 8, Time.of(20, 0), Time.of(8, 0)));
+        mView.addCelestialBody(CelestialBody.marker(new ColorDrawable(Color.RED), 4, 0.25f));
+        mCanvas.reset();
+        mView.onDraw(mCanvas);
+
+        assertEquals(drawCalls + 2, mCanvas.drawCalls);
+        assertEquals(bitmapCalls + 2, mCanvas.bitmapCalls);
+        assertEquals(pathCalls, mCanvas.pathCalls);
+    }
+}
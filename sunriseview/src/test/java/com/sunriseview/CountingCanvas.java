@@ -0,0 +1,103 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * A Canvas that only counts draw calls, so tests can drive onDraw on the JVM
+ * without the cost (and allocations) of a real rasterizer.
+ */
+class CountingCanvas extends Canvas {
+
+    int drawCalls;
+    int arcCalls;
+    int bitmapCalls;
+    int pathCalls;
+    int textCalls;
+    int saveCount;
+
+    void reset() {
+        drawCalls = 0;
+        arcCalls = 0;
+        bitmapCalls = 0;
+        pathCalls = 0;
+        textCalls = 0;
+        saveCount = 0;
+    }
+
+    @Override
+    public int save() {
+        return ++saveCount;
+    }
+
+    @Override
+    public void restore() {
+        saveCount--;
+    }
+
+    @Override
+    public void drawArc(RectF oval, float startAngle, float sweepAngle, boolean useCenter, Paint paint) {
+        drawCalls++;
+        arcCalls++;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        drawCalls++;
+        pathCalls++;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        drawCalls++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        drawCalls++;
+        bitmapCalls++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        drawCalls++;
+        bitmapCalls++;
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        drawCalls++;
+        textCalls++;
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        drawCalls++;
+        textCalls++;
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        drawCalls++;
+        textCalls++;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sunriseview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SunMathTest {
+
+    private static final int SUNRISE = 6 * 3600 * 1000;
+    private static final int SUNSET = 18 * 3600 * 1000;
+
+    @Test
+    public void wakesAtTheNextPixelCrossing() {
+        float radius = 300;
+        double millisPerPixel = (SUNSET - SUNRISE) / (Math.PI * radius);
+        // 0.25 px along the track: 0.75 px to go
+        int time = SUNRISE + (int) (0.25 * millisPerPixel);
+        long delay = SunMath.millisToNextPixel(time, SUNRISE, SUNSET, radius);
+        assertEquals(0.75 * millisPerPixel, delay, 2);
+
+        // the crossing is measured from sunrise, so delays do not drift
+        long at = time + delay;
+        assertEquals(1, Math.round((at - SUNRISE) / millisPerPixel));
+        assertTrue(SunMath.millisToNextPixel((int) at, SUNRISE, SUNSET, radius) > millisPerPixel - 2);
+    }
+
+    @Test
+    public void neverPastSunset() {
+        assertEquals(1, SunMath.millisToNextPixel(SUNSET - 1, SUNRISE, SUNSET, 300));
+    }
+
+    @Test
+    public void bodyRatioWrapsAroundMidnight() {
+        int hour = 3600;
+        // rises 20:00, sets 8:00 the next day
+        assertEquals(0.5f, SunMath.bodyRatio(2 * hour, 20 * hour, 8 * hour, 24 * hour), 1e-6f);
+        assertEquals(0, SunMath.bodyRatio(20 * hour, 20 * hour, 8 * hour, 24 * hour), 0);
+        assertTrue(SunMath.bodyRatio(12 * hour, 20 * hour, 8 * hour, 24 * hour) > 1);
+    }
+}
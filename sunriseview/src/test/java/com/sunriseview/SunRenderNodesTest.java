@@ -0,0 +1,41 @@
+package com.sunriseview;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunRenderNodesTest {
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void renderNodesFallBackToCanvasWhenNotAccelerated() {
+        mView.setRatio(0.5f);
+        mView.onDraw(mCanvas);
+        int drawCalls = mCanvas.drawCalls;
+
+        mView.setRenderNodeEnabled(true);
+        mCanvas.reset();
+        mView.onDraw(mCanvas);
+
+        assertFalse(mCanvas.isHardwareAccelerated());
+        assertEquals(drawCalls, mCanvas.drawCalls);
+    }
+}
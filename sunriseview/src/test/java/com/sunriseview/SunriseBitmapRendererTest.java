@@ -0,0 +1,115 @@
+package com.sunriseview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+
+import com.sunriseview.oters.SunriseSunsetLabelFormatter;
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseBitmapRendererTest {
+
+    private SunriseBitmapRenderer mRenderer;
+    private SunriseStyle mStyle;
+
+    @Before
+    public void setUp() {
+        mRenderer = new SunriseBitmapRenderer(null, 4 * 1024 * 1024);
+        mStyle = new SunriseStyle();
+        mStyle.setSunDrawable(new ColorDrawable(Color.YELLOW));
+    }
+
+    @Test
+    public void rendersRequestedSize() {
+        Bitmap bitmap = mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.4f);
+        assertEquals(320, bitmap.getWidth());
+        assertEquals(180, bitmap.getHeight());
+    }
+
+    @Test
+    public void identicalUpdatesReuseTheBitmap() {
+        Bitmap first = mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.4f);
+        // another city with the same times, a new but equal style
+        Bitmap second = mRenderer.render(320, 180, new SunriseStyle(mStyle), new Time(6, 17), new Time(18, 32), 0.4f);
+        assertSame(first, second);
+
+        // the sun moved less than a pixel
+        Bitmap third = mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.4001f);
+        assertSame(first, third);
+    }
+
+    @Test
+    public void differentInputsRenderAgain() {
+        Bitmap first = mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.4f);
+        assertNotSame(first, mRenderer.render(320, 180, mStyle, new Time(6, 18), new Time(18, 32), 0.4f));
+        assertNotSame(first, mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.6f));
+
+        SunriseStyle red = new SunriseStyle(mStyle);
+        red.setTrackColor(Color.RED);
+        assertNotSame(first, mRenderer.render(320, 180, red, new Time(6, 17), new Time(18, 32), 0.4f));
+    }
+
+    @Test
+    public void timesAreKeyedToTheSecond() {
+        Bitmap first = mRenderer.render(320, 180, mStyle, Time.of(6, 17, 0), new Time(18, 32), 0.4f);
+        assertNotSame(first, mRenderer.render(320, 180, mStyle, Time.of(6, 17, 30), new Time(18, 32), 0.4f));
+    }
+
+    @Test
+    public void customFormatterFormatsLabels() {
+        final int[] calls = new int[1];
+        mRenderer.setLabelFormatter(new SunriseSunsetLabelFormatter() {
+            @Override
+            public String formatSunriseLabel(Time sunrise) {
+                calls[0]++;
+                return "rise";
+            }
+
+            @Override
+            public String formatSunsetLabel(Time sunset) {
+                calls[0]++;
+                return "set";
+            }
+        });
+        mRenderer.render(320, 180, mStyle, new Time(6, 17), new Time(18, 32), 0.4f);
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void renderersAreEvictedLeastRecentlyUsedFirst() {
+        SunriseStyle[] styles = new SunriseStyle[9];
+        SunriseRenderer[] renderers = new SunriseRenderer[9];
+        for (int i = 0; i < 8; i++) {
+            styles[i] = new SunriseStyle(mStyle);
+            styles[i].setTrackColor(0xFF000000 | i);
+            renderers[i] = mRenderer.getRenderer(styles[i]);
+        }
+        // a renderer carries the style it was created with, not the caller's instance
+        assertNotSame(styles[0], renderers[0].getStyle());
+        assertEquals(styles[0], renderers[0].getStyle());
+
+        assertSame(renderers[0], mRenderer.getRenderer(new SunriseStyle(styles[0])));
+        styles[8] = new SunriseStyle(mStyle);
+        styles[8].setTrackColor(Color.RED);
+        mRenderer.getRenderer(styles[8]);
+
+        assertSame(renderers[0], mRenderer.getRenderer(styles[0]));
+        for (int i = 2; i < 8; i++) {
+            assertSame(renderers[i], mRenderer.getRenderer(styles[i]));
+        }
+        assertNotSame(renderers[1], mRenderer.getRenderer(styles[1]));
+    }
+
+}
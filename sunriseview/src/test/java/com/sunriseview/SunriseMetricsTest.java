@@ -0,0 +1,52 @@
+package com.sunriseview;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseMetricsTest {
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        // renderers and their track layers are shared across views, do not inherit them
+        SunriseRenderer.resetPool();
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void metricsCountPhasesAndCacheHits() {
+        SunriseMetrics metrics = new SunriseMetrics();
+        mView.setMetrics(metrics);
+        mView.setLayerCacheMode(SunriseView.LAYER_CACHE_TRACK);
+        for (int i = 0; i < 10; i++) {
+            mView.setRatio(i / 10f);
+            mView.onDraw(mCanvas);
+        }
+
+        SunriseMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(10, snapshot.draws);
+        assertEquals(11, snapshot.invalidations);
+        assertEquals(10, snapshot.getPhaseCount(SunriseMetrics.PHASE_TRACK_LAYER));
+        assertEquals(10, snapshot.getPhaseCount(SunriseMetrics.PHASE_SUN));
+        assertEquals(10, snapshot.getPhaseCount(SunriseMetrics.PHASE_LABELS));
+        // recorded once, then reused
+        assertEquals(1, snapshot.getPhaseCount(SunriseMetrics.PHASE_TRACK));
+        assertEquals(9, snapshot.layerHits);
+        assertEquals(1, snapshot.layerMisses);
+        assertEquals(9, snapshot.labelHits);
+        assertEquals(1, snapshot.labelMisses);
+    }
+}
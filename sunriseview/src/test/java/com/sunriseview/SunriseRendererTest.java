@@ -0,0 +1,57 @@
+package com.sunriseview;
+
+import android.content.Context;
+import android.graphics.Color;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseRendererTest {
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        // renderers and their track layers are shared across views, do not inherit them
+        SunriseRenderer.resetPool();
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void equalStylesShareRenderer() {
+        SunriseStyle style = mView.getStyle();
+        SunriseStyle other = new SunriseStyle(style);
+        assertSame(SunriseRenderer.obtain(style), SunriseRenderer.obtain(other));
+
+        other.setTrackColor(Color.RED);
+        assertNotSame(SunriseRenderer.obtain(style), SunriseRenderer.obtain(other));
+    }
+
+    @Test
+    public void sunDrawableIsResolvedOnFirstDrawAndShared() {
+        Context context = RuntimeEnvironment.getApplication();
+        SunriseView first = new SunriseView(context, null);
+        SunriseView second = new SunriseView(context, null);
+        assertNull(first.getStyle().getSunDrawable());
+
+        first.onDraw(mCanvas);
+        assertNotNull(first.getStyle().getSunDrawable());
+        assertSame(first.getSunDrawable().getConstantState(), second.getSunDrawable().getConstantState());
+    }
+}
@@ -0,0 +1,93 @@
+package com.sunriseview;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseStripViewTest {
+
+    private static final int DAYS = 30;
+    private static final int DAY_WIDTH = 240;
+
+    private SunriseStripView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        mView = new SunriseStripView(context);
+        SunriseStyle style = mView.getStyle();
+        style.setSunDrawable(new ColorDrawable(Color.YELLOW));
+        mView.setStyle(style);
+        mView.setDayWidth(DAY_WIDTH);
+
+        Time[] sunrises = new Time[DAYS];
+        Time[] sunsets = new Time[DAYS];
+        for (int day = 0; day < DAYS; day++) {
+            sunrises[day] = new Time(6, day);
+            sunsets[day] = new Time(18, 59 - day);
+        }
+        mView.setDays(sunrises, sunsets);
+        mView.setCurrentDay(1, 0.5f);
+        mView.measure(View.MeasureSpec.makeMeasureSpec(3 * DAY_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void onlyVisibleDaysAreDrawnInOnePass() {
+        mView.onDraw(mCanvas);
+
+        // one batched path for the tracks, one for the shadows
+        assertEquals(2, mCanvas.pathCalls);
+        assertEquals(0, mCanvas.arcCalls);
+        // the sun of the current day only
+        assertEquals(1, mCanvas.bitmapCalls);
+        // sunrise and sunset label of the three visible days
+        assertEquals(6, mCanvas.textCalls);
+    }
+
+    @Test
+    public void scrollingMovesTheVisibleDays() {
+        mView.scrollToDay(10);
+        assertEquals(10, mView.getFirstVisibleDay());
+        assertEquals(12, mView.getLastVisibleDay());
+        mView.onDraw(mCanvas);
+        assertEquals(0, mCanvas.bitmapCalls);
+        assertEquals(6, mCanvas.textCalls);
+
+        mView.scrollToDay(DAYS);
+        assertEquals(DAYS - 3, mView.getFirstVisibleDay());
+        assertEquals(DAYS - 1, mView.getLastVisibleDay());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroDayWidthIsRejected() {
+        mView.setDayWidth(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void currentDayOutOfRangeIsRejected() {
+        mView.setCurrentDay(DAYS, 0.5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ratioOfUnknownDayIsRejected() {
+        mView.setRatio(-1, 0.5f);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sunriseview;
+
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewBatchEditTest {
+
+    private SunriseView mView;
+
+    @Before
+    public void setUp() {
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+    }
+
+    @Test
+    public void batchEditInvalidatesOnce() {
+        SunriseMetrics metrics = new SunriseMetrics();
+        mView.setMetrics(metrics);
+        mView.beginBatchEdit();
+        mView.setTrackColor(Color.RED);
+        mView.setTrackWidth(2);
+        mView.setShadowColor(Color.BLUE);
+        mView.setLabelTextSize(30);
+        mView.setSunsetTime(Time.of(19, 0));
+        assertEquals(0, metrics.snapshot().invalidations);
+        mView.endBatchEdit();
+
+        assertEquals(1, metrics.snapshot().invalidations);
+        assertFalse(mView.isLayoutRequested());
+    }
+
+    @Test
+    public void batchEditCoversDrawSettersAndRatio() {
+        SunriseMetrics metrics = new SunriseMetrics();
+        mView.setMetrics(metrics);
+        mView.beginBatchEdit();
+        mView.setLayerCacheMode(SunriseView.LAYER_CACHE_TRACK);
+        mView.setRenderNodeEnabled(true);
+        mView.addCelestialBody(CelestialBody.marker(new ColorDrawable(Color.RED), 4, 0.25f));
+        mView.clearCelestialBodies();
+        mView.setTwilight(null);
+        mView.setLiveMode(true);
+        mView.setSunriseTime(Time.of(5, 0));
+        mView.setRatio(0.4f);
+        assertEquals(0, metrics.snapshot().invalidations);
+        mView.endBatchEdit();
+
+        assertEquals(1, metrics.snapshot().invalidations);
+        assertEquals(0.4f, mView.getRatio(), 0);
+    }
+
+    @Test
+    public void sunRadiusChangeRequestsLayout() {
+        mView.beginBatchEdit();
+        mView.setTrackColor(Color.RED);
+        mView.setSunRadius(mView.getSunRadius() + 10);
+        assertFalse(mView.isLayoutRequested());
+        mView.endBatchEdit();
+
+        assertTrue(mView.isLayoutRequested());
+    }
+}
@@ -0,0 +1,60 @@
+package com.sunriseview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.assertWithinBudget;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Performance budgets of SunriseView, checked on the JVM. Raising a budget should be a
+ * deliberate decision in review.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewBudgetTest {
+
+    // track, shadow, sun, two labels
+    private static final int DRAW_CALLS_NO_CACHE = 5;
+    // track layer, shadow, sun, two labels
+    private static final int DRAW_CALLS_TRACK_CACHE = 5;
+    // track and labels layer, shadow, sun
+    private static final int DRAW_CALLS_TRACK_AND_LABELS_CACHE = 3;
+    private static final int BYTES_PER_DRAW = 0;
+    private static final int SWEEP_STEPS = 100;
+
+    @Test
+    public void noCache() {
+        checkBudgets(SunriseView.LAYER_CACHE_NONE, DRAW_CALLS_NO_CACHE);
+    }
+
+    @Test
+    public void trackCache() {
+        checkBudgets(SunriseView.LAYER_CACHE_TRACK, DRAW_CALLS_TRACK_CACHE);
+    }
+
+    @Test
+    public void trackAndLabelsCache() {
+        checkBudgets(SunriseView.LAYER_CACHE_TRACK_AND_LABELS, DRAW_CALLS_TRACK_AND_LABELS_CACHE);
+    }
+
+    private void checkBudgets(int layerCacheMode, int drawCallsPerFrame) {
+        SunriseViewHarness harness = new SunriseViewHarness(layerCacheMode);
+
+        assertWithinBudget("draw calls per sweep frame", drawCallsPerFrame, harness.sweep(SWEEP_STEPS));
+        // one (dirty rect) invalidate per setRatio
+        assertWithinBudget("invalidates per sweep", SWEEP_STEPS + 1, harness.metrics.snapshot().invalidations);
+
+        assertWithinBudget("bytes allocated per onDraw", BYTES_PER_DRAW, harness.allocatedBytesPerDraw(100, 1000));
+
+        harness.metrics.reset();
+        assertWithinBudget("draw calls per animation frame", drawCallsPerFrame, harness.runStartAnimation());
+        SunriseMetrics.Snapshot animation = harness.metrics.snapshot();
+        assertTrue("animation produced no frames", animation.animatorFrames > 0);
+        assertWithinBudget("invalidates per animation", animation.animatorFrames, animation.invalidations);
+        assertFalse("animation requested a layout", harness.view.isLayoutRequested());
+    }
+}
@@ -0,0 +1,71 @@
+package com.sunriseview;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.allocatedBytes;
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewDrawTest {
+
+    private static final int FRAMES = 1000;
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        // renderers and their track layers are shared across views, do not inherit them
+        SunriseRenderer.resetPool();
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void sunFollowsTrack() {
+        mView.setRatio(0.5f);
+        float radius = (SunriseViewHarness.WIDTH - 2 * mView.getSunRadius()) / 2;
+
+        assertEquals(320, mView.getSunBounds().centerX(), 1);
+        assertEquals(mView.getSunRadius(), mView.getSunBounds().centerY(), 1);
+        assertEquals(2 * mView.getSunRadius(), mView.getSunBounds().width(), 1);
+        assertEquals((int) (radius + mView.getSunRadius()), mView.getMeasuredHeight());
+    }
+
+    @Test
+    public void steadyStateDrawDoesNotAllocate() {
+        mView.setRatio(0.3f);
+        // warm up lazily formatted labels and any class initialization
+        for (int i = 0; i < 100; i++) {
+            mView.onDraw(mCanvas);
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            mView.onDraw(mCanvas);
+        }
+        long perFrame = (allocatedBytes() - before) / FRAMES;
+
+        assertEquals("bytes allocated per onDraw", 0, perFrame);
+    }
+
+    @Test
+    public void trackLayerIsBlittedInsteadOfRedrawn() {
+        mView.setLayerCacheMode(SunriseView.LAYER_CACHE_TRACK);
+        for (int i = 0; i < 10; i++) {
+            mView.setRatio(i / 10f);
+            mView.onDraw(mCanvas);
+        }
+        assertEquals(0, mCanvas.arcCalls);
+        // track layer and sun sprite
+        assertEquals(20, mCanvas.bitmapCalls);
+    }
+}
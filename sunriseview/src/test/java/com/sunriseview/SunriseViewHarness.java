@@ -0,0 +1,134 @@
+package com.sunriseview;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Looper;
+import android.view.View;
+
+import com.sunriseview.oters.Time;
+
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Drives a measured and laid out {@link SunriseView} against a {@link CountingCanvas} and
+ * counts what it costs: bytes allocated per onDraw, draw calls per frame and, through
+ * {@link SunriseMetrics}, invalidations and animator frames.
+ */
+final class SunriseViewHarness {
+
+    static final int WIDTH = 640;
+    private static final long FRAME_MILLIS = 16;
+    // 动画最多跑多少帧, 防止死循环
+    private static final int MAX_ANIMATION_FRAMES = 1000;
+
+    final SunriseView view;
+    final CountingCanvas canvas = new CountingCanvas();
+    final SunriseMetrics metrics = new SunriseMetrics();
+
+    SunriseViewHarness(int layerCacheMode) {
+        view = newMeasuredView(Time.of(0, 0), Time.of(23, 59));
+        view.setLayerCacheMode(layerCacheMode);
+        view.setMetrics(metrics);
+    }
+
+    /**
+     * A view with a plain sun drawable, not measured yet.
+     */
+    static SunriseView newView() {
+        Context context = RuntimeEnvironment.getApplication();
+        SunriseView view = new SunriseView(context);
+        view.setSunDrawable(new ColorDrawable(Color.YELLOW));
+        return view;
+    }
+
+    /**
+     * A view with the given times, measured and laid out {@link #WIDTH} pixels wide.
+     */
+    static SunriseView newMeasuredView(Time sunrise, Time sunset) {
+        SunriseView view = newView();
+        view.setSunriseTime(sunrise);
+        view.setSunsetTime(sunset);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+    /**
+     * Draws one frame.
+     *
+     * @return draw calls of that frame
+     */
+    int drawFrame() {
+        canvas.reset();
+        view.onDraw(canvas);
+        return canvas.drawCalls;
+    }
+
+    /**
+     * @return average bytes allocated by onDraw after {@code warmup} frames
+     */
+    long allocatedBytesPerDraw(int warmup, int frames) {
+        for (int i = 0; i < warmup; i++) {
+            view.onDraw(canvas);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < frames; i++) {
+            view.onDraw(canvas);
+        }
+        return (allocatedBytes() - before) / frames;
+    }
+
+    /**
+     * Sets {@code steps + 1} ratios from 0 to 1, drawing a frame after each.
+     *
+     * @return the most draw calls of any frame
+     */
+    int sweep(int steps) {
+        int maxDrawCalls = 0;
+        for (int i = 0; i <= steps; i++) {
+            view.setRatio((float) i / steps);
+            maxDrawCalls = Math.max(maxDrawCalls, drawFrame());
+        }
+        return maxDrawCalls;
+    }
+
+    /**
+     * Runs {@link SunriseView#startAnimate()} to its end, drawing a frame per vsync.
+     *
+     * @return the most draw calls of any frame
+     */
+    int runStartAnimation() {
+        view.startAnimate();
+        int maxDrawCalls = 0;
+        for (int frame = 0; view.isAnimating(); frame++) {
+            if (frame == MAX_ANIMATION_FRAMES) {
+                fail("animation did not end within " + MAX_ANIMATION_FRAMES + " frames");
+            }
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(FRAME_MILLIS));
+            maxDrawCalls = Math.max(maxDrawCalls, drawFrame());
+        }
+        return maxDrawCalls;
+    }
+
+    static void assertWithinBudget(String what, long budget, long actual) {
+        if (actual > budget) {
+            fail(what + " over budget: " + actual + " > " + budget);
+        }
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,48 @@
+package com.sunriseview;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewPowerSaveTest {
+
+    private SunriseView mView;
+    private CountingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mView = newMeasuredView(new Time(6, 17), new Time(18, 32));
+        mCanvas = new CountingCanvas();
+    }
+
+    @Test
+    public void powerSaveModeSkipsSubPixelUpdates() {
+        SunriseMetrics metrics = new SunriseMetrics();
+        mView.setMetrics(metrics);
+        mView.setPowerSaveMode(true);
+        mView.setRatio(0.3f);
+        mView.onDraw(mCanvas);
+        metrics.reset();
+
+        // 轨迹约 940px 长, 每步约 0.1px
+        for (int i = 1; i <= 4; i++) {
+            mView.setRatio(0.3f + i * 0.0001f);
+        }
+        assertEquals(4, metrics.snapshot().skippedUpdates);
+        assertEquals(0, metrics.snapshot().invalidations);
+
+        // measured from the last drawn frame, so small steps add up
+        mView.setRatio(0.3f + 0.001f);
+        assertEquals(1, metrics.snapshot().renderedUpdates);
+        assertEquals(1, metrics.snapshot().invalidations);
+    }
+}
@@ -0,0 +1,162 @@
+package com.sunriseview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewScrubTest {
+
+    private SunriseView mView;
+    private final RecordingListener mListener = new RecordingListener();
+    private final SunriseMetrics mMetrics = new SunriseMetrics();
+    private float mTrackRadius;
+
+    @Before
+    public void setUp() {
+        mView = newMeasuredView(Time.of(6, 0), Time.of(18, 0));
+        mView.setScrubEnabled(true);
+        mView.setOnScrubListener(mListener);
+        mView.setMetrics(mMetrics);
+        mTrackRadius = (SunriseViewHarness.WIDTH - 2 * mView.getSunRadius()) / 2;
+    }
+
+    @Test
+    public void ratioAtInvertsSunPosition() {
+        for (int i = 0; i <= 10; i++) {
+            float ratio = i / 10f;
+            float x = SunMath.sunX(10, 100, ratio);
+            float y = SunMath.sunY(110, 100, ratio);
+            assertEquals(ratio, SunMath.ratioAt(x, y, 10, 110, 100), 1e-4f);
+        }
+        // below the horizon: the nearer end of the track
+        assertEquals(0, SunMath.ratioAt(0, 200, 10, 110, 100), 0);
+        assertEquals(1, SunMath.ratioAt(220, 200, 10, 110, 100), 0);
+    }
+
+    @Test
+    public void touchOutsideTheSunIsIgnored() {
+        mView.setRatio(0.5f);
+        assertFalse(mView.onTouchEvent(event(MotionEvent.ACTION_DOWN, 0, mView.getHeight() - 1)));
+        assertFalse(mView.isScrubbing());
+    }
+
+    @Test
+    public void dragFollowsEachMoveEvent() {
+        mView.setRatio(0);
+        mView.onTouchEvent(event(MotionEvent.ACTION_DOWN, sunX(0), sunY(0)));
+        assertTrue(mView.isScrubbing());
+        assertEquals(1, mListener.starts);
+
+        mMetrics.reset();
+        for (int i = 1; i <= 10; i++) {
+            mView.onTouchEvent(event(MotionEvent.ACTION_MOVE, sunX(i / 40f), sunY(i / 40f)));
+        }
+        assertEquals(10, mListener.scrubs);
+        assertEquals(10, mMetrics.snapshot().invalidations);
+        assertEquals(0.25f, mView.getRatio(), 1e-3f);
+        // a quarter of a 12 hour day after 6:00
+        assertSame(Time.of(9, 0), mListener.time);
+
+        mView.onTouchEvent(event(MotionEvent.ACTION_UP, sunX(0.5f), sunY(0.5f)));
+        assertFalse(mView.isScrubbing());
+        assertEquals(11, mListener.scrubs);
+        assertEquals(1, mListener.ends);
+        assertSame(Time.of(12, 0), mListener.time);
+    }
+
+    @Test
+    public void batchedMoveAppliesOnlyTheNewestSample() {
+        mView.setRatio(0);
+        mView.onTouchEvent(event(MotionEvent.ACTION_DOWN, sunX(0), sunY(0)));
+        MotionEvent move = event(MotionEvent.ACTION_MOVE, sunX(0.1f), sunY(0.1f));
+        move.addBatch(move.getEventTime() + 4, sunX(0.2f), sunY(0.2f), 1, 1, 0);
+        move.addBatch(move.getEventTime() + 8, sunX(0.3f), sunY(0.3f), 1, 1, 0);
+        assertEquals(2, move.getHistorySize());
+
+        mMetrics.reset();
+        mView.onTouchEvent(move);
+        assertEquals(1, mListener.scrubs);
+        assertEquals(1, mMetrics.snapshot().invalidations);
+        assertEquals(0.3f, mView.getRatio(), 1e-3f);
+    }
+
+    @Test
+    public void releaseCountsAsClick() {
+        final int[] clicks = new int[1];
+        mView.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                clicks[0]++;
+            }
+        });
+        mView.setRatio(0.5f);
+        mView.onTouchEvent(event(MotionEvent.ACTION_DOWN, sunX(0.5f), sunY(0.5f)));
+        mView.onTouchEvent(event(MotionEvent.ACTION_UP, sunX(0.6f), sunY(0.6f)));
+
+        assertEquals(1, clicks[0]);
+    }
+
+    @Test
+    public void cancelKeepsTheLastAppliedPosition() {
+        mView.setRatio(0.5f);
+        mView.onTouchEvent(event(MotionEvent.ACTION_DOWN, sunX(0.5f), sunY(0.5f)));
+        mView.onTouchEvent(event(MotionEvent.ACTION_MOVE, sunX(0.75f), sunY(0.75f)));
+        mView.onTouchEvent(event(MotionEvent.ACTION_CANCEL, sunX(0.25f), sunY(0.25f)));
+
+        assertEquals(0.75f, mView.getRatio(), 1e-3f);
+        assertEquals(1, mListener.scrubs);
+        assertEquals(1, mListener.ends);
+    }
+
+    private float sunX(float ratio) {
+        return SunMath.sunX(mView.getSunRadius(), mTrackRadius, ratio);
+    }
+
+    private float sunY(float ratio) {
+        return SunMath.sunY(mView.getHeight(), mTrackRadius, ratio);
+    }
+
+    private static MotionEvent event(int action, float x, float y) {
+        long now = SystemClock.uptimeMillis();
+        return MotionEvent.obtain(now, now, action, x, y, 0);
+    }
+
+    private static final class RecordingListener implements SunriseView.OnScrubListener {
+        int starts;
+        int scrubs;
+        int ends;
+        Time time;
+
+        @Override
+        public void onScrubStart(SunriseView view) {
+            starts++;
+        }
+
+        @Override
+        public void onScrub(SunriseView view, Time time, float ratio) {
+            scrubs++;
+            this.time = time;
+        }
+
+        @Override
+        public void onScrubEnd(SunriseView view) {
+            ends++;
+        }
+    }
+}
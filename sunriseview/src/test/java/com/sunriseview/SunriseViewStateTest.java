@@ -0,0 +1,92 @@
+package com.sunriseview;
+
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+import static com.sunriseview.SunriseViewHarness.newView;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class SunriseViewStateTest {
+
+    @Test
+    public void restoresFinalFrameWithoutAnimating() {
+        SunriseView view = newView();
+        view.setSunriseTime(Time.of(6, 17, 30));
+        view.setSunsetTime(Time.of(18, 32));
+        view.setRatio(0.4f);
+
+        SunriseView restored = newView();
+        // the host starts the intro again in onCreate, before the state is restored
+        restored.setSunriseTime(Time.of(6, 0));
+        restored.setSunsetTime(Time.of(18, 0));
+        restored.animateRatio(0.9f);
+        restored.onRestoreInstanceState(parcel(view.onSaveInstanceState()));
+
+        assertFalse(restored.isAnimating());
+        assertEquals(0.4f, restored.getRatio(), 0);
+        assertEquals(Time.of(6, 17, 30), restored.getSunriseTime());
+        assertEquals(Time.of(18, 32), restored.getSunsetTime());
+    }
+
+    @Test
+    public void resumesInterruptedAnimation() {
+        SunriseView view = newView();
+        view.setSunriseTime(Time.of(6, 0));
+        view.setSunsetTime(Time.of(18, 0));
+        view.setAnimationDuration(1000);
+        view.animateRatio(1);
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(400));
+        assertTrue(view.isAnimating());
+        float ratio = view.getRatio();
+
+        SunriseView restored = newView();
+        restored.setAnimationDuration(1000);
+        restored.onRestoreInstanceState(parcel(view.onSaveInstanceState()));
+
+        assertTrue(restored.isAnimating());
+        assertEquals(ratio, restored.getRatio(), 0.05f);
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(700));
+        assertFalse(restored.isAnimating());
+        assertEquals(1, restored.getRatio(), 0);
+    }
+
+    @Test
+    public void restoresUnsetTimes() {
+        SunriseView view = newView();
+        view.setRatio(0.7f);
+
+        SunriseView restored = newView();
+        restored.onRestoreInstanceState(parcel(view.onSaveInstanceState()));
+
+        assertEquals(0.7f, restored.getRatio(), 0);
+        assertNull(restored.getSunriseTime());
+    }
+
+    // 模拟进程重建: 经过 Parcel 往返
+    private static Parcelable parcel(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return SunriseView.SavedState.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.sunriseview;
+
+import com.sunriseview.oters.Time;
+import com.sunriseview.solar.SolarTimes;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.sunriseview.SunriseViewHarness.allocatedBytes;
+import static com.sunriseview.SunriseViewHarness.newMeasuredView;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class TwilightSkyTest {
+
+    private static final int FRAMES = 1000;
+
+    private final SolarTimes mTimes = new SolarTimes();
+    private final TwilightSky mSky = new TwilightSky();
+
+    @Before
+    public void setUp() {
+        // 每层 30 分钟
+        mTimes.astronomicalDawn = hours(4.5f);
+        mTimes.nauticalDawn = hours(5);
+        mTimes.civilDawn = hours(5.5f);
+        mTimes.sunrise = hours(6);
+        mTimes.solarNoon = hours(12);
+        mTimes.sunset = hours(18);
+        mTimes.civilDusk = hours(18.5f);
+        mTimes.nauticalDusk = hours(19);
+        mTimes.astronomicalDusk = hours(19.5f);
+        mSky.setTimes(mTimes);
+    }
+
+    @Test
+    public void depthFollowsTwilightBands() {
+        mSky.setTime(hours(18.25f));
+        assertEquals(0.5f, mSky.getDepth(), 1e-3f);
+        assertEquals(255, mSky.getAlpha());
+
+        mSky.setTime(hours(19.25f));
+        assertEquals(2.5f, mSky.getDepth(), 1e-3f);
+
+        mSky.setTime(hours(5.25f));
+        assertEquals(1.5f, mSky.getDepth(), 1e-3f);
+
+        mSky.setTime(hours(23));
+        assertEquals(TwilightSky.MAX_DEPTH, mSky.getDepth(), 0);
+    }
+
+    @Test
+    public void glowFadesOutAfterSunrise() {
+        mSky.setTime(hours(6));
+        assertEquals(255, mSky.getAlpha());
+
+        mSky.setTime(hours(6.25f));
+        assertEquals(128, mSky.getAlpha());
+
+        mSky.setTime(hours(12));
+        assertEquals(0, mSky.getAlpha());
+        assertFalse(mSky.setTime(hours(13)));
+    }
+
+    @Test
+    public void whiteNightsStopAtTheDeepestBand() {
+        mTimes.nauticalDusk = SolarTimes.ALWAYS_ABOVE;
+        mTimes.astronomicalDusk = SolarTimes.ALWAYS_ABOVE;
+        mSky.setTimes(mTimes);
+
+        mSky.setTime(hours(23));
+        assertEquals(1, mSky.getDepth(), 0);
+    }
+
+    @Test
+    public void viewDrawsSkyWithoutAllocating() {
+        SunriseView view = newMeasuredView(Time.of(6, 0), Time.of(18, 0));
+        CountingCanvas canvas = new CountingCanvas();
+
+        view.setRatio(0.5f);
+        view.onDraw(canvas);
+        int dayCalls = canvas.drawCalls;
+
+        view.setTwilight(mTimes);
+        canvas.reset();
+        view.onDraw(canvas);
+        assertEquals("no twilight at noon", dayCalls, canvas.drawCalls);
+
+        // 日落后 15 分钟: 色带和光晕
+        view.setRatio(1 + 0.25f / 12);
+        canvas.reset();
+        view.onDraw(canvas);
+        assertEquals(dayCalls + 2, canvas.drawCalls);
+
+        for (int i = 0; i < 100; i++) {
+            view.setRatio(1 + (i % 10) / 120f);
+            view.onDraw(canvas);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            view.setRatio(1 + (i % 10) / 120f);
+            view.onDraw(canvas);
+        }
+        assertEquals("bytes allocated per frame", 0, (allocatedBytes() - before) / FRAMES);
+    }
+
+    @Test
+    public void powerSaveModeDefersSkyChanges() {
+        SunriseView view = newMeasuredView(Time.of(6, 0), Time.of(18, 0));
+        SunriseMetrics metrics = new SunriseMetrics();
+        view.setMetrics(metrics);
+        view.setTwilight(mTimes);
+        view.setPowerSaveMode(true);
+        view.setRatio(0.99f);
+        view.onDraw(new CountingCanvas());
+        metrics.reset();
+
+        // 约 13 秒: 余晖变淡, 太阳只移动约 0.3px
+        view.setRatio(0.9903f);
+        assertEquals(1, metrics.snapshot().skippedUpdates);
+        assertEquals(0, metrics.snapshot().invalidations);
+    }
+
+    @Test
+    public void liveTickDefersSkyChangesInPowerSaveMode() {
+        SunriseView view = newMeasuredView(Time.of(6, 0), Time.of(18, 0));
+        SunriseMetrics metrics = new SunriseMetrics();
+        view.setMetrics(metrics);
+        view.setTwilight(mTimes);
+        view.setPowerSaveMode(true);
+        // 日落前 7 分 12 秒, 余晖正在变化
+        int millis = hours(17.88f) * 1000;
+        view.onClockTick(millis);
+        view.onDraw(new CountingCanvas());
+        metrics.reset();
+
+        // 13 秒: 余晖变淡, 太阳只移动约 0.3px
+        view.onClockTick(millis + 13 * 1000);
+        assertEquals(1, metrics.snapshot().skippedUpdates);
+        assertEquals(0, metrics.snapshot().invalidations);
+
+        // 一分钟后太阳移动超过一个像素, 太阳和天空只 invalidate 一次
+        view.onClockTick(millis + 60 * 1000);
+        assertEquals(1, metrics.snapshot().renderedUpdates);
+        assertEquals(1, metrics.snapshot().invalidations);
+
+        // 日落后太阳停在终点, 天空仍然每分钟重绘
+        view.onDraw(new CountingCanvas());
+        view.onClockTick(hours(18.5f) * 1000);
+        metrics.reset();
+        view.onDraw(new CountingCanvas());
+        view.onClockTick(hours(18.5f) * 1000 + 60 * 1000);
+        assertEquals(1, metrics.snapshot().invalidations);
+    }
+
+    private static int hours(float hours) {
+        return Math.round(hours * 3600);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sunriseview.oters;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SimpleSunriseSunsetLabelFormatterTest {
+
+    private final SimpleSunriseSunsetLabelFormatter mFormatter = new SimpleSunriseSunsetLabelFormatter();
+
+    @Test
+    public void matchesStringFormat() {
+        Locale[] locales = {Locale.US, Locale.GERMANY, new Locale("ar", "EG"), new Locale("bn", "BD")};
+        StringBuilder out = new StringBuilder();
+        for (Locale locale : locales) {
+            for (int minutes = 0; minutes < 24 * Time.MINUTES_PER_HOUR; minutes += 7) {
+                Time time = new Time(minutes / Time.MINUTES_PER_HOUR, minutes % Time.MINUTES_PER_HOUR);
+                out.setLength(0);
+                mFormatter.formatSunriseLabel(time, locale, out);
+                assertEquals(String.format(locale, "%d:%d", time.hour, time.minute), out.toString());
+            }
+        }
+    }
+
+    @Test
+    public void appendsToExistingContent() {
+        StringBuilder out = new StringBuilder("sunset ");
+        mFormatter.formatSunsetLabel(new Time(18, 5), Locale.US, out);
+        assertEquals("sunset 18:5", out.toString());
+    }
+
+    @Test
+    public void formatTimeReusesTheLastLabel() {
+        Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            String label = mFormatter.formatSunriseLabel(Time.of(6, 7));
+            assertEquals("6:7", label);
+            assertSame(label, mFormatter.formatSunsetLabel(Time.of(6, 7)));
+            assertEquals("18:32", mFormatter.formatSunsetLabel(Time.of(18, 32)));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
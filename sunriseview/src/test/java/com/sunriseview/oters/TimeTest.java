@@ -0,0 +1,52 @@
+package com.sunriseview.oters;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TimeTest {
+
+    @Test
+    public void wholeMinutesAreInterned() {
+        Time time = Time.of(6, 17);
+        assertSame(time, Time.ofMinuteOfDay(6 * 60 + 17));
+        assertSame(time, Time.ofSecondOfDay((6 * 60 + 17) * 60));
+        assertEquals(6, time.hour);
+        assertEquals(17, time.minute);
+        assertEquals(0, time.second);
+        assertEquals(6 * 60 + 17, time.transformToMinutes());
+    }
+
+    @Test
+    public void secondsArePacked() {
+        Time time = Time.of(18, 32, 45);
+        assertEquals((18 * 60 + 32) * 60 + 45, time.getSecondOfDay());
+        assertEquals(18 * 60 + 32, time.getMinuteOfDay());
+        assertNotSame(time, Time.of(18, 32, 45));
+        assertEquals(time, Time.of(18, 32, 45));
+        assertEquals(new Time(18, 32, 45), time);
+    }
+
+    @Test
+    public void fromEpochMillis() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        // 2024-06-21T04:25:12Z
+        assertEquals(Time.of(4, 25, 12), Time.ofEpochMillis(1718943912000L, utc));
+        assertEquals(Time.of(23, 59, 59), Time.ofEpochMillis(-1000L, utc));
+        assertEquals(Time.of(6, 25, 12), Time.ofEpochMillis(1718943912000L, TimeZone.getTimeZone("GMT+02:00")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOutOfRange() {
+        Time.ofMinuteOfDay(Time.MINUTES_PER_DAY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsOutOfRange() {
+        new Time(25, 70);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sunriseview.solar;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolarCalculatorTest {
+
+    // NOAA solar calculator reference values, one minute tolerance plus rounding
+    private static final int TOLERANCE_SECONDS = 90;
+
+    private final SolarCalculator mCalculator = new SolarCalculator();
+    private final SolarTimes mTimes = new SolarTimes();
+
+    @Test
+    public void newYorkSummerSolstice() {
+        mCalculator.compute(40.7128, -74.0060, 2024, 6, 21, -240, mTimes);
+        assertTime(5, 25, mTimes.sunrise);
+        assertTime(20, 31, mTimes.sunset);
+        assertTime(12, 58, mTimes.solarNoon);
+        assertTime(4, 53, mTimes.civilDawn);
+        assertTime(21, 3, mTimes.civilDusk);
+    }
+
+    @Test
+    public void dhakaWithTimeZone() {
+        mCalculator.compute(23.8103, 90.4125, 2024, 1, 15, TimeZone.getTimeZone("Asia/Dhaka"), mTimes);
+        assertTime(6, 44, mTimes.sunrise);
+        assertTime(17, 32, mTimes.sunset);
+    }
+
+    @Test
+    public void londonWinterSolstice() {
+        mCalculator.compute(51.5074, -0.1278, 2024, 12, 21, 0, mTimes);
+        assertTime(8, 4, mTimes.sunrise);
+        assertTime(15, 54, mTimes.sunset);
+    }
+
+    @Test
+    public void polarDayAndNight() {
+        mCalculator.compute(69.6492, 18.9553, 2024, 6, 21, 120, mTimes);
+        assertTrue(mTimes.isPolarDay());
+        assertEquals(SolarTimes.ALWAYS_ABOVE, mTimes.sunset);
+        assertEquals(SolarTimes.ALWAYS_ABOVE, mTimes.civilDusk);
+
+        mCalculator.compute(69.6492, 18.9553, 2024, 12, 21, 60, mTimes);
+        assertTrue(mTimes.isPolarNight());
+        // civil twilight still happens around noon in Tromsø
+        assertTrue(SolarTimes.hasEvent(mTimes.civilDawn));
+        assertTrue(mTimes.civilDawn < mTimes.solarNoon && mTimes.solarNoon < mTimes.civilDusk);
+    }
+
+    @Test
+    public void batchMatchesSingleLocation() {
+        double[] latitudes = {40.7128, 51.5074, 69.6492, -33.8688};
+        double[] longitudes = {-74.0060, -0.1278, 18.9553, 151.2093};
+        int[] offsets = {-240, 60, 120, 600};
+        int[] sunrise = new int[4];
+        int[] sunset = new int[4];
+
+        mCalculator.computeSunriseSunset(latitudes, longitudes, offsets, 2024, 6, 21, sunrise, sunset);
+
+        for (int i = 0; i < latitudes.length; i++) {
+            mCalculator.compute(latitudes[i], longitudes[i], 2024, 6, 21, offsets[i], mTimes);
+            assertEquals(mTimes.sunrise, sunrise[i]);
+            assertEquals(mTimes.sunset, sunset[i]);
+        }
+    }
+
+    private static void assertTime(int hour, int minute, int seconds) {
+        assertEquals((hour * 60 + minute) * 60, seconds, TOLERANCE_SECONDS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sunriseview.solar;
+
+import com.sunriseview.oters.Time;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SolarTableTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void roundTripMatchesCalculator() throws Exception {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        TimeZone tromso = TimeZone.getTimeZone("Europe/Oslo");
+        SolarTableBuilder builder = new SolarTableBuilder(2024);
+        int nyc = builder.addLocation(40.7128, -74.0060, newYork);
+        int polar = builder.addLocation(69.6492, 18.9553, tromso);
+        for (int i = 0; i < 100; i++) {
+            builder.addLocation(-50 + i, -180 + 3.6 * i, TimeZone.getTimeZone("UTC"));
+        }
+        File file = mFolder.newFile("2024.srst");
+        builder.build(file);
+
+        SolarTable table = SolarTable.open(file);
+        assertEquals(2024, table.getYear());
+        assertEquals(102, table.getLocationCount());
+        assertEquals(366, table.getDayCount());
+
+        // June 21st is day 173 of 2024
+        SolarCalculator calculator = new SolarCalculator();
+        SolarTimes times = new SolarTimes();
+        calculator.compute(40.7128, -74.0060, 2024, 6, 21, newYork, times);
+        assertEquals(SolarTimes.toMinuteOfDay(times.sunrise), table.getSunriseMinutes(nyc, 173));
+        assertEquals(SolarTimes.toMinuteOfDay(times.sunset), table.getSunsetMinutes(nyc, 173));
+
+        Time sunrise = table.getSunriseTime(nyc, 173);
+        assertEquals(SolarTimes.toMinuteOfDay(times.sunrise), sunrise.transformToMinutes());
+        assertSame(sunrise, table.getSunriseTime(nyc, 173));
+
+        int minutes = table.getRiseSetMinutes(nyc, 173);
+        assertEquals(table.getSunriseMinutes(nyc, 173), SolarTable.sunriseOf(minutes));
+        assertEquals(table.getSunsetMinutes(nyc, 173), SolarTable.sunsetOf(minutes));
+        assertEquals(SolarTable.NO_RISE_SET, table.getRiseSetMinutes(polar, 173));
+
+        assertEquals(SolarTimes.ALWAYS_ABOVE, table.getSunriseMinutes(polar, 173));
+        assertNull(table.getSunriseTime(polar, 173));
+        assertNull(table.getSunsetTime(polar, 173));
+        assertEquals(SolarTimes.ALWAYS_BELOW, table.getSunsetMinutes(polar, 356));
+    }
+}